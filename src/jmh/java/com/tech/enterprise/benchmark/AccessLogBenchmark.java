@@ -0,0 +1,155 @@
+package com.tech.enterprise.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.tech.enterprise.diagnostics.AccessLogFilter;
+import com.tech.enterprise.model.Tenant;
+import com.tech.enterprise.tenant.TenantResolver;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import jakarta.servlet.FilterChain;
+
+/**
+ * Logging cost on the request thread for a successful GET, through
+ * AccessLogFilter and a stand-in for the rest of the filter chain.
+ *
+ * before: Spring Security at DEBUG (the lines FilterChainProxy and
+ * AnonymousAuthenticationFilter print per request) written synchronously to a
+ * file, no access log. after / after-unsampled: security at INFO and the JSON
+ * access log through a non-blocking AsyncAppender, sampled at 10% or logging
+ * every request.
+ *
+ * Several threads share the appender, as request threads do. When the async
+ * queue fills, lines are dropped, which is the configured behaviour.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class AccessLogBenchmark {
+
+    private static final String ROUTE = "/api/{tenantSlug}/products/{id}";
+    private static final byte[] BODY = "{\"id\":1,\"name\":\"Trail Runner\",\"price\":89.90}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private static final Logger SECURITY_LOG = LoggerFactory
+            .getLogger("org.springframework.security.web.FilterChainProxy");
+    private static final Logger ANONYMOUS_LOG = LoggerFactory
+            .getLogger("org.springframework.security.web.authentication.AnonymousAuthenticationFilter");
+
+    @Param({ "before", "after", "after-unsampled" })
+    public String mode;
+
+    private Path logFile;
+    private Appender<ILoggingEvent> appender;
+    private AccessLogFilter filter;
+    private Tenant tenant;
+    private FilterChain chain;
+
+    @Setup
+    public void setUp() throws IOException {
+        logFile = Files.createTempFile("access-log-benchmark", ".log");
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("before".equals(mode)
+                ? "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %pid --- [%t] %-40.40logger{39} : %m%n"
+                : "%msg%n");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setFile(logFile.toString());
+        file.setEncoder(encoder);
+        file.start();
+
+        ch.qos.logback.classic.Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        ch.qos.logback.classic.Logger accessLog = context.getLogger("access-log");
+        accessLog.setAdditive(false);
+
+        if ("before".equals(mode)) {
+            appender = file;
+            root.addAppender(file);
+            context.getLogger("org.springframework.security").setLevel(Level.DEBUG);
+            accessLog.setLevel(Level.OFF);
+        } else {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(0);
+            async.setNeverBlock(true);
+            async.addAppender(file);
+            async.start();
+            appender = async;
+            accessLog.addAppender(async);
+            accessLog.setLevel(Level.INFO);
+        }
+
+        filter = new AccessLogFilter(true, "after".equals(mode) ? 0.1 : 1.0, Duration.ofSeconds(1));
+
+        tenant = new Tenant();
+        tenant.setId(1L);
+        tenant.setSlug("acme");
+
+        chain = (request, response) -> {
+            SECURITY_LOG.debug("Securing GET {}", ((MockHttpServletRequest) request).getRequestURI());
+            ANONYMOUS_LOG.debug("Set SecurityContextHolder to anonymous SecurityContext");
+            SECURITY_LOG.debug("Secured GET {}", ((MockHttpServletRequest) request).getRequestURI());
+            request.setAttribute(TenantResolver.TENANT_ATTRIBUTE, tenant);
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, ROUTE);
+            response.setContentType("application/json");
+            response.getOutputStream().write(BODY);
+        };
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        appender.stop();
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).reset();
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse request() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/acme/products/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,76 @@
+package com.tech.enterprise.benchmark;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.tech.enterprise.dto.CartLine;
+import com.tech.enterprise.dto.CartQuote;
+import com.tech.enterprise.model.ProductVariant;
+import com.tech.enterprise.repo.ProductVariantRepository;
+import com.tech.enterprise.service.CartQuoteService;
+
+/**
+ * CartQuoteService.quote for carts of various sizes, including map building,
+ * BigDecimal pricing and HMAC signing. The repository is in memory, so the
+ * single IN query is not part of the measurement.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CartQuoteBenchmark {
+
+    @Param({ "10", "100" })
+    public int lines;
+
+    private CartQuoteService service;
+    private List<CartLine> cart;
+
+    @Setup
+    public void setUp() {
+        List<ProductVariant> variants = new ArrayList<>(lines);
+        cart = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            ProductVariant variant = new ProductVariant();
+            variant.setId((long) i + 1);
+            variant.setProductId((long) i / 3 + 1);
+            variant.setTenantId(1L);
+            variant.setQuantityValue(BigDecimal.ONE);
+            variant.setQuantityUnit("kg");
+            variant.setPrice(BigDecimal.valueOf(1999 + i, 2));
+            variants.add(variant);
+            cart.add(new CartLine(variant.getId(), i % 5 + 1));
+        }
+
+        ProductVariantRepository repository = RepositoryStubs.stub(ProductVariantRepository.class,
+                Map.of("findPurchasableByIdInAndTenantId", args -> variants));
+        service = new CartQuoteService(repository);
+        ReflectionTestUtils.setField(service, "signingSecret", "benchmark-secret");
+        ReflectionTestUtils.setField(service, "quoteTtl", Duration.ofMinutes(15));
+        ReflectionTestUtils.invokeMethod(service, "initSigningKey");
+    }
+
+    @Benchmark
+    public CartQuote quote() {
+        return service.quote(cart, 1L);
+    }
+}
@@ -0,0 +1,50 @@
+package com.tech.enterprise.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.tech.enterprise.model.Product;
+import com.tech.enterprise.model.ProductVariant;
+
+/**
+ * Deterministic catalog data shared by the serialization benchmarks.
+ */
+final class CatalogFixtures {
+
+    private CatalogFixtures() {
+    }
+
+    static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Product product = new Product();
+            product.setId((long) i + 1);
+            product.setName("Product " + i);
+            product.setTenantId(1L);
+            product.setImageName("product_" + i + "_1_0a1b2c3d");
+            product.setCategory("category-" + (i % 12));
+            product.setDescription("Description of product " + i);
+            product.setPrice(BigDecimal.valueOf(1000 + i, 2));
+            product.setUnit("kg");
+            products.add(product);
+        }
+        return products;
+    }
+
+    static List<ProductVariant> variants(int count) {
+        List<ProductVariant> variants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ProductVariant variant = new ProductVariant();
+            variant.setId((long) i + 1);
+            variant.setProductId((long) (i / 4) + 1);
+            variant.setTenantId(1L);
+            variant.setQuantityValue(BigDecimal.valueOf(250L * (i % 4 + 1), 0));
+            variant.setQuantityUnit("g");
+            variant.setPrice(BigDecimal.valueOf(250 + i, 2));
+            variant.setStock(100);
+            variants.add(variant);
+        }
+        return variants;
+    }
+}
@@ -0,0 +1,65 @@
+package com.tech.enterprise.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.tech.enterprise.model.Product;
+import com.tech.enterprise.model.ProductVariant;
+
+/**
+ * JSON serialization of product and variant lists, configured like the
+ * application's ObjectMapper (non_null inclusion, ISO dates).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CatalogJsonBenchmark {
+
+    @Param({ "10", "1000", "100000" })
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Product> products;
+    private List<ProductVariant> variants;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        products = CatalogFixtures.products(size);
+        variants = CatalogFixtures.variants(size);
+    }
+
+    @Benchmark
+    public byte[] serializeProducts() throws Exception {
+        return objectMapper.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public byte[] serializeVariants() throws Exception {
+        return objectMapper.writeValueAsBytes(variants);
+    }
+}
@@ -0,0 +1,100 @@
+package com.tech.enterprise.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.cfg.MapperBuilder;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.tech.enterprise.dto.CatalogView;
+import com.tech.enterprise.dto.ProductView;
+import com.tech.enterprise.dto.VariantView;
+import com.tech.enterprise.model.Product;
+import com.tech.enterprise.model.ProductVariant;
+
+/**
+ * Encoding and decoding a tenant catalog (GET /catalog) as JSON and as CBOR,
+ * with mappers configured like the application's (see CborConfig). Decoding
+ * is what a polling client pays. The encoded sizes are printed at setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CatalogWireFormatBenchmark {
+
+    @Param({ "json", "cbor" })
+    public String format;
+
+    @Param({ "10", "1000", "10000" })
+    public int products;
+
+    private ObjectMapper objectMapper;
+    private CatalogView catalog;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        MapperBuilder<?, ?> builder = format.equals("cbor") ? CBORMapper.builder() : JsonMapper.builder();
+        objectMapper = builder
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+
+        // Four variants per product, as in CatalogFixtures
+        List<ProductVariant> variants = CatalogFixtures.variants(products * 4);
+        List<Product> fixtures = CatalogFixtures.products(products);
+        List<ProductView> views = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            Product product = fixtures.get(i);
+            product.setActive(true);
+            product.setVersion(3L);
+            List<VariantView> productVariants = new ArrayList<>(4);
+            for (ProductVariant variant : variants.subList(i * 4, i * 4 + 4)) {
+                productVariants.add(new VariantView(variant.getId(), variant.getProductId(), variant.getTenantId(),
+                        variant.getQuantityValue(), variant.getQuantityUnit(), variant.getPrice(), true,
+                        variant.getStock(), 1L));
+            }
+            views.add(ProductView.of(product).withVariants(productVariants));
+        }
+        catalog = new CatalogView(42, views);
+        encoded = objectMapper.writeValueAsBytes(catalog);
+
+        if (!objectMapper.readValue(encoded, CatalogView.class).equals(catalog)) {
+            throw new IllegalStateException(format + " does not round-trip the catalog");
+        }
+        System.out.printf("%n%s, %d products: %d bytes%n", format, products, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return objectMapper.writeValueAsBytes(catalog);
+    }
+
+    @Benchmark
+    public CatalogView decode() throws Exception {
+        return objectMapper.readValue(encoded, CatalogView.class);
+    }
+}
@@ -0,0 +1,241 @@
+package com.tech.enterprise.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.flywaydb.core.Flyway;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.tech.enterprise.dto.ProductView;
+import com.tech.enterprise.dto.VariantView;
+import com.tech.enterprise.model.Product;
+import com.tech.enterprise.model.ProductVariant;
+import com.tech.enterprise.model.Tenant;
+import com.tech.enterprise.repo.ConnectionMode;
+import com.tech.enterprise.repo.ConnectionModeDataSourcePostProcessor;
+import com.tech.enterprise.repo.ProductRepository;
+import com.tech.enterprise.repo.ProductVariantRepository;
+import com.zaxxer.hikari.HikariDataSource;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+
+/**
+ * Repository queries on PostgreSQL in both connection modes: SESSION
+ * (server-side prepared statements, parsed and planned once per connection)
+ * and TRANSACTION_POOLER (prepareThreshold=0, parsed and planned on every
+ * call). Each operation is a transaction as a request would run it, through
+ * Hibernate and a Hikari pool configured by ConnectionModeDataSourcePostProcessor.
+ *
+ * Needs a running PostgreSQL, by default the loadtest one
+ * (src/loadtest/docker-compose.yml); override with -Dbenchmark.db.url,
+ * -Dbenchmark.db.username and -Dbenchmark.db.password. The benchmark migrates
+ * and seeds its own schema and drops it afterwards. Connecting directly, there
+ * is no pooler hop, so the difference is the server's parse and plan work.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConnectionModeBenchmark {
+
+    private static final String SCHEMA = "connection_mode_benchmark";
+    private static final int TENANTS = 50;
+    private static final int PRODUCTS_PER_TENANT = 200;
+    private static final long TENANT_ID = 7L;
+
+    @Param({ "SESSION", "TRANSACTION_POOLER" })
+    public ConnectionMode mode;
+
+    private HikariDataSource dataSource;
+    private SessionFactory sessionFactory;
+    private long[] productIds;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        String url = System.getProperty("benchmark.db.url", "jdbc:postgresql://localhost:5432/enterprise");
+        String username = System.getProperty("benchmark.db.username", "enterprise");
+        String password = System.getProperty("benchmark.db.password", "enterprise");
+
+        Flyway.configure()
+                .dataSource(url, username, password)
+                .schemas(SCHEMA)
+                .createSchemas(true)
+                .load()
+                .migrate();
+
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.addDataSourceProperty("currentSchema", SCHEMA);
+        new ConnectionModeDataSourcePostProcessor(mode, 5, 4)
+                .postProcessBeforeInitialization(dataSource, "dataSource");
+
+        seed(new JdbcTemplate(dataSource));
+        productIds = new JdbcTemplate(dataSource)
+                .queryForList("select id from products where tenant_id = ? order by id", Long.class, TENANT_ID)
+                .stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(Tenant.class)
+                .addAnnotatedClass(Product.class)
+                .addAnnotatedClass(ProductVariant.class);
+        configuration.getProperties().put(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource);
+        sessionFactory = configuration.buildSessionFactory();
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        if (jdbcTemplate.queryForObject("select count(*) from tenants", Long.class) > 0) {
+            return;
+        }
+        jdbcTemplate.update("insert into tenants (name, slug, active) "
+                + "select 'Tenant ' || t, 'tenant-' || t, true from generate_series(1, ?) t", TENANTS);
+        jdbcTemplate.update("insert into products (name, tenant_id, category, description, price, unit, active) "
+                + "select 'Product ' || p, t, 'category-' || (p % 12), 'Description of product ' || p, "
+                + "10 + p, 'kg', p % 10 <> 0 from generate_series(1, ?) t, generate_series(1, ?) p",
+                TENANTS, PRODUCTS_PER_TENANT);
+        jdbcTemplate.update("insert into product_variants "
+                + "(product_id, tenant_id, quantity_value, quantity_unit, price, active, stock) "
+                + "select p.id, p.tenant_id, 250 * v, 'g', 2 + v, true, 1000 "
+                + "from products p, generate_series(1, 3) v");
+        jdbcTemplate.execute("analyze");
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+        new JdbcTemplate(dataSource).execute("drop schema " + SCHEMA + " cascade");
+        dataSource.close();
+    }
+
+    /**
+     * TenantRepository.findBySlug, run by TenantResolver on a cache miss.
+     */
+    @Benchmark
+    public Object tenantBySlug() {
+        return inTransaction(session -> session
+                .createQuery("from Tenant t where t.slug = :slug", Tenant.class)
+                .setParameter("slug", "tenant-" + TENANT_ID)
+                .getResultList());
+    }
+
+    /**
+     * ProductRepository.findByIdAndTenantId, the product detail endpoint.
+     */
+    @Benchmark
+    public Object productById() {
+        long productId = nextProductId();
+        return inTransaction(session -> session
+                .createQuery("from Product p where p.id = :id and p.tenantId = :tenantId", Product.class)
+                .setParameter("id", productId)
+                .setParameter("tenantId", TENANT_ID)
+                .getResultList());
+    }
+
+    /**
+     * ProductVariantRepository.findViewsByProductIdAndTenantId.
+     */
+    @Benchmark
+    public Object variantsOfProduct() {
+        long productId = nextProductId();
+        return inTransaction(session -> session
+                .createQuery(ProductVariantRepository.VIEW + "where v.productId = :productId and v.tenantId = :tenantId",
+                        VariantView.class)
+                .setParameter("productId", productId)
+                .setParameter("tenantId", TENANT_ID)
+                .getResultList());
+    }
+
+    /**
+     * The two catalog queries of CatalogService, one tenant's active products
+     * and variants.
+     */
+    @Benchmark
+    public Object catalog() {
+        return inTransaction(session -> {
+            List<ProductView> products = session
+                    .createQuery(ProductRepository.VIEW + "where p.tenantId = :tenantId and p.active = true order by p.id",
+                            ProductView.class)
+                    .setParameter("tenantId", TENANT_ID)
+                    .getResultList();
+            List<VariantView> variants = session
+                    .createQuery(ProductVariantRepository.VIEW
+                            + "where v.tenantId = :tenantId and v.active = true order by v.productId, v.id",
+                            VariantView.class)
+                    .setParameter("tenantId", TENANT_ID)
+                    .getResultList();
+            return List.of(products, variants);
+        });
+    }
+
+    /**
+     * ProductVariantRepository.tryReserveStock followed by restoreStock, so
+     * stock stays level.
+     */
+    @Benchmark
+    public Object reserveAndRestore() {
+        long productId = nextProductId();
+        return inTransaction(session -> {
+            Long variantId = session
+                    .createQuery("select min(v.id) from ProductVariant v where v.productId = :productId", Long.class)
+                    .setParameter("productId", productId)
+                    .getSingleResult();
+            int reserved = session.createMutationQuery("update ProductVariant v set v.stock = v.stock - :qty "
+                    + "where v.id = :id and v.tenantId = :tenantId and v.active = true "
+                    + "and (v.stock is null or v.stock >= :qty)")
+                    .setParameter("id", variantId)
+                    .setParameter("tenantId", TENANT_ID)
+                    .setParameter("qty", 1)
+                    .executeUpdate();
+            int restored = session.createMutationQuery(
+                    "update ProductVariant v set v.stock = v.stock + :qty where v.id = :id and v.tenantId = :tenantId")
+                    .setParameter("id", variantId)
+                    .setParameter("tenantId", TENANT_ID)
+                    .setParameter("qty", 1)
+                    .executeUpdate();
+            return reserved + restored;
+        });
+    }
+
+    private long nextProductId() {
+        long productId = productIds[next];
+        next = (next + 1) % productIds.length;
+        return productId;
+    }
+
+    private Object inTransaction(Function<Session, Object> work) {
+        try (Session session = sessionFactory.openSession()) {
+            Transaction tx = session.beginTransaction();
+            Object result = work.apply(session);
+            tx.commit();
+            return result;
+        }
+    }
+}
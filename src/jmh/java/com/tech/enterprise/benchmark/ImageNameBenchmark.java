@@ -0,0 +1,46 @@
+package com.tech.enterprise.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tech.enterprise.service.ProductService;
+
+/**
+ * The imageName slug built by saveProduct: the original chained
+ * replaceAll (two regex compilations per call) against the single-pass
+ * ProductService.toImageSlug.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ImageNameBenchmark {
+
+    @Param({ "Basmati Rice", "  Premium -- Organic Toor Dal (1kg Pack) !! " })
+    public String name;
+
+    @Benchmark
+    public String regexReplaceAll() {
+        return name.toLowerCase()
+                .trim()
+                .replaceAll("[^a-z0-9]+", "_")
+                .replaceAll("^_+|_+$", "");
+    }
+
+    @Benchmark
+    public String singlePass() {
+        return ProductService.toImageSlug(name);
+    }
+}
@@ -0,0 +1,162 @@
+package com.tech.enterprise.benchmark;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.tech.enterprise.dto.ProductView;
+import com.tech.enterprise.dto.VariantView;
+import com.tech.enterprise.model.Product;
+import com.tech.enterprise.model.ProductVariant;
+import com.tech.enterprise.repo.ProductRepository;
+import com.tech.enterprise.repo.ProductVariantRepository;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+
+/**
+ * A list request's work inside a transaction: query, commit and JSON
+ * serialization. Managed entities (the previous list endpoints) are compared
+ * with the constructor-expression views in ProductRepository and
+ * ProductVariantRepository, on an in-memory H2 database.
+ *
+ * Run with -prof gc to see allocation per request (gc.alloc.rate.norm).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListProjectionBenchmark {
+
+    private static final long TENANT_ID = 1L;
+    private static final int VARIANTS_PER_PRODUCT = 4;
+
+    @Param({ "50", "500" })
+    public int products;
+
+    private SessionFactory sessionFactory;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Product.class)
+                .addAnnotatedClass(ProductVariant.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL,
+                        "jdbc:h2:mem:projections;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .buildSessionFactory();
+        objectMapper = JsonMapper.builder()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build();
+
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Transaction tx = session.beginTransaction();
+            for (int i = 0; i < products; i++) {
+                Product product = new Product();
+                product.setName("Product " + i);
+                product.setTenantId(TENANT_ID);
+                product.setImageName("product_" + i + "_1_0a1b2c3d");
+                product.setCategory("category-" + (i % 12));
+                product.setDescription("Description of product " + i);
+                product.setPrice(BigDecimal.valueOf(1000 + i, 2));
+                product.setUnit("kg");
+                product.setVersion(0L);
+                session.insert(product);
+
+                for (int v = 0; v < VARIANTS_PER_PRODUCT; v++) {
+                    ProductVariant variant = new ProductVariant();
+                    variant.setProductId(product.getId());
+                    variant.setTenantId(TENANT_ID);
+                    variant.setQuantityValue(BigDecimal.valueOf(250L * (v + 1)));
+                    variant.setQuantityUnit("g");
+                    variant.setPrice(BigDecimal.valueOf(250 + i, 2));
+                    variant.setStock(100);
+                    variant.setVersion(0L);
+                    session.insert(variant);
+                }
+            }
+            tx.commit();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public byte[] productEntities() throws Exception {
+        return inTransaction(session -> session
+                .createQuery("from Product p where p.tenantId = :tenantId", Product.class)
+                .setParameter("tenantId", TENANT_ID)
+                .getResultList());
+    }
+
+    @Benchmark
+    public byte[] productViews() throws Exception {
+        return inTransaction(session -> session
+                .createQuery(ProductRepository.VIEW + "where p.tenantId = :tenantId", ProductView.class)
+                .setParameter("tenantId", TENANT_ID)
+                .getResultList());
+    }
+
+    @Benchmark
+    public byte[] variantEntities() throws Exception {
+        return inTransaction(session -> session
+                .createQuery("from ProductVariant v where v.tenantId = :tenantId", ProductVariant.class)
+                .setParameter("tenantId", TENANT_ID)
+                .getResultList());
+    }
+
+    @Benchmark
+    public byte[] variantViews() throws Exception {
+        return inTransaction(session -> session
+                .createQuery(ProductVariantRepository.VIEW + "where v.tenantId = :tenantId", VariantView.class)
+                .setParameter("tenantId", TENANT_ID)
+                .getResultList());
+    }
+
+    /**
+     * Query in a transaction that commits (flushing, i.e. dirty-checking, the
+     * persistence context), then serialize as the controller would.
+     */
+    private byte[] inTransaction(Function<Session, List<?>> query) throws Exception {
+        List<?> rows;
+        try (Session session = sessionFactory.openSession()) {
+            Transaction tx = session.beginTransaction();
+            rows = query.apply(session);
+            tx.commit();
+        }
+        return objectMapper.writeValueAsBytes(rows);
+    }
+}
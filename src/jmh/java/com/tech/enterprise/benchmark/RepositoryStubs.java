@@ -0,0 +1,27 @@
+package com.tech.enterprise.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-ins for Spring Data repositories so services can be
+ * benchmarked without a database. Unlisted methods throw.
+ */
+final class RepositoryStubs {
+
+    private RepositoryStubs() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T stub(Class<T> repositoryType, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[] { repositoryType },
+                (proxy, method, args) -> {
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer == null) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return answer.apply(args);
+                });
+    }
+}
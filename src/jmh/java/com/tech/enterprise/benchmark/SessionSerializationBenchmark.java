@@ -0,0 +1,78 @@
+package com.tech.enterprise.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import com.tech.enterprise.model.Admin;
+import com.tech.enterprise.security.AdminUserDetails;
+
+/**
+ * Java serialization of the session's SecurityContext holding an
+ * AdminUserDetails, as done when sessions are persisted or replicated.
+ * The serializedBytes counter reports the size per session.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SessionSerializationBenchmark {
+
+    private SecurityContextImpl context;
+
+    @Setup
+    public void setUp() {
+        Admin admin = new Admin();
+        admin.setId(42L);
+        admin.setUsername("store-admin");
+        admin.setPasswordHash("$2a$10$ouaFln6wMisz.wa6lbpzJ.Gf4FNm47vqY4gVnnQ62thiOOjbvK9nC");
+        admin.setActive(true);
+        admin.setCreatedAt(LocalDateTime.of(2025, 1, 1, 0, 0));
+        admin.setTenantId(7L);
+
+        AdminUserDetails details = new AdminUserDetails(admin);
+        context = new SecurityContextImpl(
+                new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities()));
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Size {
+        public long serializedBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            serializedBytes = 0;
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeSecurityContext(Size size) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(context);
+        }
+        byte[] result = bytes.toByteArray();
+        size.serializedBytes = result.length;
+        return result;
+    }
+}
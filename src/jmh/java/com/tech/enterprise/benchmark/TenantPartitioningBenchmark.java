@@ -0,0 +1,255 @@
+package com.tech.enterprise.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.flywaydb.core.Flyway;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.tech.enterprise.dto.ProductView;
+import com.tech.enterprise.dto.VariantView;
+import com.tech.enterprise.model.Product;
+import com.tech.enterprise.model.ProductVariant;
+import com.tech.enterprise.model.Tenant;
+import com.tech.enterprise.repo.ConnectionMode;
+import com.tech.enterprise.repo.ConnectionModeDataSourcePostProcessor;
+import com.tech.enterprise.repo.ProductRepository;
+import com.tech.enterprise.repo.ProductVariantRepository;
+import com.zaxxer.hikari.HikariDataSource;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+
+/**
+ * Per-tenant repository queries on plain and hash-partitioned catalog tables
+ * (partitions=0 and partitions=16, see V3__tenant_partitioning.sql).
+ *
+ * The default dataset is 10M rows: 2.5M products and 7.5M variants over 2000
+ * tenants. Rows are inserted round-robin over tenants, as tenants add products
+ * over time, so in the plain tables one tenant's rows are spread thinly over
+ * the whole heap. The partitioned layout is converted from the seeded plain
+ * tables by partition_catalog_tables, as an existing database would be, which
+ * also lays each tenant's rows out together. Override the size with
+ * -p products=...
+ *
+ * Needs a running PostgreSQL, like ConnectionModeBenchmark (-Dbenchmark.db.url,
+ * -Dbenchmark.db.username, -Dbenchmark.db.password). Each layout and size is
+ * migrated and seeded in its own schema (tenant_partitioning_16_2500000 and so
+ * on). Seeding takes minutes at the default size, so the schemas are kept for
+ * later runs; drop them when done.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TenantPartitioningBenchmark {
+
+    private static final int TENANTS = 2000;
+    private static final int VARIANTS_PER_PRODUCT = 3;
+
+    @Param({ "0", "16" })
+    public int partitions;
+
+    @Param("2500000")
+    public int products;
+
+    private HikariDataSource dataSource;
+    private SessionFactory sessionFactory;
+    private long[] tenantIds;
+    private long[][] productIds;
+    private long[][] variantIds;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        String schema = "tenant_partitioning_" + partitions + "_" + products;
+        String url = System.getProperty("benchmark.db.url", "jdbc:postgresql://localhost:5432/enterprise");
+        String username = System.getProperty("benchmark.db.username", "enterprise");
+        String password = System.getProperty("benchmark.db.password", "enterprise");
+
+        Flyway.configure()
+                .dataSource(url, username, password)
+                .schemas(schema)
+                .createSchemas(true)
+                .load()
+                .migrate();
+
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.addDataSourceProperty("currentSchema", schema);
+        new ConnectionModeDataSourcePostProcessor(ConnectionMode.SESSION, 5, 4)
+                .postProcessBeforeInitialization(dataSource, "dataSource");
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        if (jdbcTemplate.queryForObject("select count(*) from tenants", Long.class) == 0) {
+            seed(jdbcTemplate);
+            // Converted after seeding, as an existing database would be
+            if (partitions > 0) {
+                long start = System.nanoTime();
+                jdbcTemplate.update("call partition_catalog_tables(?)", partitions);
+                System.out.printf("Partitioned %d rows in %d s%n", products * (1 + VARIANTS_PER_PRODUCT),
+                        TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+            }
+        }
+
+        // A few tenants spread over the id range, so the plain layout cannot
+        // keep one tenant's pages hot between calls
+        tenantIds = new long[] { 7, TENANTS / 3, TENANTS / 2, TENANTS - 11 };
+        productIds = new long[tenantIds.length][];
+        variantIds = new long[tenantIds.length][];
+        for (int i = 0; i < tenantIds.length; i++) {
+            productIds[i] = ids(jdbcTemplate, "select id from products where tenant_id = ? order by id", tenantIds[i]);
+            variantIds[i] = ids(jdbcTemplate, "select id from product_variants where tenant_id = ? order by id",
+                    tenantIds[i]);
+        }
+
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(Tenant.class)
+                .addAnnotatedClass(Product.class)
+                .addAnnotatedClass(ProductVariant.class);
+        configuration.getProperties().put(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource);
+        sessionFactory = configuration.buildSessionFactory();
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("insert into tenants (name, slug, active) "
+                + "select 'Tenant ' || t, 'tenant-' || t, true from generate_series(1, ?) t", TENANTS);
+        jdbcTemplate.update("insert into products (name, tenant_id, category, description, price, unit, active) "
+                + "select 'Product ' || p, t, 'category-' || (p % 12), 'Description of product ' || p, "
+                + "10 + p, 'kg', p % 10 <> 0 from generate_series(1, ?) p, generate_series(1, ?) t",
+                products / TENANTS, TENANTS);
+        jdbcTemplate.update("insert into product_variants "
+                + "(product_id, tenant_id, quantity_value, quantity_unit, price, active, stock) "
+                + "select p.id, p.tenant_id, 250 * v, 'g', 2 + v, true, 1000 "
+                + "from generate_series(1, ?) v, products p", VARIANTS_PER_PRODUCT);
+        jdbcTemplate.execute("vacuum analyze products");
+        jdbcTemplate.execute("vacuum analyze product_variants");
+    }
+
+    private static long[] ids(JdbcTemplate jdbcTemplate, String sql, long tenantId) {
+        return jdbcTemplate.queryForList(sql, Long.class, tenantId).stream().mapToLong(Long::longValue).toArray();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+        dataSource.close();
+    }
+
+    /**
+     * The two catalog queries of CatalogService: one tenant's active products
+     * and variants.
+     */
+    @Benchmark
+    public Object catalog() {
+        long tenantId = tenantIds[nextTenant()];
+        return inTransaction(session -> {
+            List<ProductView> rows = session
+                    .createQuery(ProductRepository.VIEW + "where p.tenantId = :tenantId and p.active = true order by p.id",
+                            ProductView.class)
+                    .setParameter("tenantId", tenantId)
+                    .getResultList();
+            List<VariantView> variants = session
+                    .createQuery(ProductVariantRepository.VIEW
+                            + "where v.tenantId = :tenantId and v.active = true order by v.productId, v.id",
+                            VariantView.class)
+                    .setParameter("tenantId", tenantId)
+                    .getResultList();
+            return List.of(rows, variants);
+        });
+    }
+
+    /**
+     * ProductRepository.findByIdAndTenantId, the product detail endpoint.
+     */
+    @Benchmark
+    public Object productById() {
+        int tenant = nextTenant();
+        long productId = pick(productIds[tenant]);
+        return inTransaction(session -> session
+                .createQuery("from Product p where p.id = :id and p.tenantId = :tenantId", Product.class)
+                .setParameter("id", productId)
+                .setParameter("tenantId", tenantIds[tenant])
+                .getResultList());
+    }
+
+    /**
+     * ProductVariantRepository.findViewsByProductIdAndTenantId.
+     */
+    @Benchmark
+    public Object variantsOfProduct() {
+        int tenant = nextTenant();
+        long productId = pick(productIds[tenant]);
+        return inTransaction(session -> session
+                .createQuery(ProductVariantRepository.VIEW + "where v.productId = :productId and v.tenantId = :tenantId",
+                        VariantView.class)
+                .setParameter("productId", productId)
+                .setParameter("tenantId", tenantIds[tenant])
+                .getResultList());
+    }
+
+    /**
+     * ProductVariantRepository.adjustStock there and back, so stock stays level.
+     */
+    @Benchmark
+    public Object adjustStock() {
+        int tenant = nextTenant();
+        long variantId = pick(variantIds[tenant]);
+        return inTransaction(session -> {
+            int updated = 0;
+            for (int delta : new int[] { 1, -1 }) {
+                updated += session.createMutationQuery(
+                        "update ProductVariant v set v.stock = coalesce(v.stock, 0) + :delta "
+                                + "where v.id = :id and v.tenantId = :tenantId")
+                        .setParameter("delta", delta)
+                        .setParameter("id", variantId)
+                        .setParameter("tenantId", tenantIds[tenant])
+                        .executeUpdate();
+            }
+            return updated;
+        });
+    }
+
+    private int nextTenant() {
+        next++;
+        return next % tenantIds.length;
+    }
+
+    private long pick(long[] ids) {
+        return ids[Math.floorMod(next * 7919, ids.length)];
+    }
+
+    private Object inTransaction(Function<Session, Object> work) {
+        try (Session session = sessionFactory.openSession()) {
+            Transaction tx = session.beginTransaction();
+            Object result = work.apply(session);
+            tx.commit();
+            return result;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.tech.enterprise.benchmark;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tech.enterprise.model.Tenant;
+import com.tech.enterprise.repo.TenantRepository;
+import com.tech.enterprise.tenant.TenantResolver;
+
+/**
+ * TenantResolver.resolveTenant with the slug cache enabled and disabled.
+ * The uncached case uses an in-memory repository, so it measures resolver
+ * overhead only; the database round trip it saves is not included.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TenantResolverBenchmark {
+
+    @Param({ "true", "false" })
+    public boolean cached;
+
+    private TenantResolver resolver;
+
+    @Setup
+    public void setUp() {
+        Tenant tenant = new Tenant();
+        tenant.setId(1L);
+        tenant.setName("Acme");
+        tenant.setSlug("acme");
+        tenant.setActive(true);
+
+        TenantRepository repository = RepositoryStubs.stub(TenantRepository.class,
+                Map.of("findBySlug", args -> "acme".equals(args[0]) ? Optional.of(tenant) : Optional.empty()));
+        resolver = new TenantResolver(repository, cached ? Duration.ofMinutes(1) : Duration.ZERO);
+    }
+
+    @Benchmark
+    public Tenant resolveTenant() {
+        return resolver.resolveTenant("acme");
+    }
+}
@@ -0,0 +1,696 @@
+package com.tech.enterprise.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Drives a mixed HTTP workload against a running instance started with the
+ * loadtest profile, and reports throughput, p50/p99/p999 latency and SQL
+ * statements per request for every endpoint.
+ *
+ * Usage (all options optional):
+ *
+ * <pre>
+ * ./mvnw -Ploadtest test-compile exec:exec -Dloadtest.args="--concurrency=64 --duration=PT2M"
+ * </pre>
+ *
+ * Options: --base-url, --tenants, --zipf-exponent, --concurrency, --warmup,
+ * --duration, --seed, --password, --probe-admins, --report, --scenario=mixed|reservations,
+ * --reservation-stock, --reservation-variants.
+ *
+ * The reservations scenario makes every worker reserve one unit at a time of
+ * one variant until it runs out, and checks that no variant gives out more
+ * reservations than the stock it started with. With the default of one
+ * variant every worker contends for the same row; --reservation-variants
+ * spreads the workers over that many variants of one tenant, which should
+ * not wait on each other.
+ */
+public class LoadTestDriver {
+
+    private static final String PRODUCTS = "/api/{tenantSlug}/products";
+    private static final String ADMINS = "/api/{tenantSlug}/admins";
+
+    private final Map<String, String> options;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final String baseUrl;
+    private final String password;
+    private final int probeAdmins;
+    private final List<TenantData> tenants = new ArrayList<>();
+    private ZipfDistribution tenantTraffic;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        new LoadTestDriver(options).run();
+    }
+
+    LoadTestDriver(Map<String, String> options) {
+        this.options = options;
+        this.baseUrl = option("base-url", "http://localhost:8081");
+        this.password = option("password", "loadtest");
+        this.probeAdmins = Integer.parseInt(option("probe-admins", "64"));
+    }
+
+    void run() throws Exception {
+        int tenantCount = Integer.parseInt(option("tenants", "50"));
+        tenantTraffic = new ZipfDistribution(tenantCount, Double.parseDouble(option("zipf-exponent", "1.1")));
+        prepareTenants(tenantCount);
+
+        if ("reservations".equals(option("scenario", "mixed"))) {
+            runReservationContention();
+        } else {
+            runMixedWorkload();
+        }
+    }
+
+    // --- Setup ---
+
+    private void prepareTenants(int tenantCount) throws Exception {
+        System.out.printf("Preparing %d tenants...%n", tenantCount);
+        for (int t = 0; t < tenantCount; t++) {
+            TenantData tenant = new TenantData(String.format("tenant-%04d", t + 1));
+            tenant.session = login(tenant.slug, "admin");
+
+            JsonNode products = json(send(get(tenant.path("/products"))));
+            for (JsonNode product : products) {
+                tenant.productIds.add(product.get("id").asLong());
+            }
+
+            List<Long> sample = tenant.productIds.subList(0, Math.min(300, tenant.productIds.size()));
+            if (!sample.isEmpty()) {
+                JsonNode lookups = json(send(get(tenant.path("/products/batch?includeVariants=true&ids=" + join(sample)))));
+                for (JsonNode lookup : lookups) {
+                    for (JsonNode variant : lookup.path("variants")) {
+                        tenant.variantIds.add(variant.get("id").asLong());
+                    }
+                }
+                tenant.imageProductId = sample.get(0);
+                send(multipart(tenant.path("/products/" + tenant.imageProductId + "/image"), tenant.session));
+            }
+            tenants.add(tenant);
+        }
+    }
+
+    private String login(String slug, String username) throws Exception {
+        HttpResponse<String> response = send(post("/api/" + slug + "/admins/login", null,
+                "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for " + slug + "/" + username + ": " + response.statusCode());
+        }
+        return response.headers().allValues("set-cookie").stream()
+                .filter(cookie -> cookie.startsWith("JSESSIONID="))
+                .map(cookie -> cookie.substring(0, cookie.indexOf(';')))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No session cookie for " + slug));
+    }
+
+    // --- Mixed workload ---
+
+    private void runMixedWorkload() throws Exception {
+        int concurrency = Integer.parseInt(option("concurrency", "32"));
+        Duration warmup = Duration.parse(option("warmup", "PT30S"));
+        Duration duration = Duration.parse(option("duration", "PT2M"));
+        long seed = Long.parseLong(option("seed", "7"));
+
+        List<Operation> operations = operations();
+        int[] cumulativeWeights = new int[operations.size()];
+        int totalWeight = 0;
+        for (int i = 0; i < operations.size(); i++) {
+            totalWeight += operations.get(i).weight;
+            cumulativeWeights[i] = totalWeight;
+        }
+
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long deadline = measureFrom + duration.toNanos();
+        Map<String, Map<String, Long>> statsBefore = new HashMap<>();
+
+        System.out.printf("Running mixed workload: %d workers, warmup %s, duration %s%n", concurrency, warmup, duration);
+        ConcurrentLinkedQueue<Map<String, Recorder>> results = new ConcurrentLinkedQueue<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int w = 0; w < concurrency; w++) {
+                int worker = w;
+                int total = totalWeight;
+                workers.add(executor.submit(() -> {
+                    Random random = new Random(seed + worker);
+                    Map<String, Recorder> recorders = new HashMap<>();
+                    WorkerContext context = new WorkerContext(worker, random, recorders, measureFrom);
+                    while (System.nanoTime() < deadline) {
+                        int pick = Arrays.binarySearch(cumulativeWeights, random.nextInt(total) + 1);
+                        Operation operation = operations.get(pick >= 0 ? pick : -pick - 1);
+                        TenantData tenant = tenants.get(tenantTraffic.sample(random));
+                        try {
+                            operation.action.run(tenant, context);
+                        } catch (Exception e) {
+                            context.recorder(operation.name).errors++;
+                        }
+                    }
+                    results.add(recorders);
+                    return null;
+                }));
+            }
+
+            sleepUntil(measureFrom);
+            statsBefore.putAll(queryStats());
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+        Map<String, Map<String, Long>> statsAfter = queryStats();
+
+        Map<String, Recorder> merged = new TreeMap<>();
+        for (Map<String, Recorder> recorders : results) {
+            recorders.forEach((name, recorder) -> merged.computeIfAbsent(name, n -> new Recorder()).merge(recorder));
+        }
+        report(merged, duration, statsBefore, statsAfter);
+    }
+
+    private List<Operation> operations() {
+        List<Operation> ops = new ArrayList<>();
+
+        ops.add(new Operation("GET " + PRODUCTS, 250, (tenant, ctx) ->
+                ctx.timed("GET " + PRODUCTS, get(tenant.path("/products")))));
+        ops.add(new Operation("GET " + PRODUCTS + "/{id}", 200, (tenant, ctx) ->
+                ctx.timed("GET " + PRODUCTS + "/{id}", get(tenant.path("/products/" + tenant.randomProduct(ctx.random))))));
+        ops.add(new Operation("GET " + PRODUCTS + "/batch", 50, (tenant, ctx) -> {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                ids.add(tenant.randomProduct(ctx.random));
+            }
+            ctx.timed("GET " + PRODUCTS + "/batch", get(tenant.path("/products/batch?includeVariants=true&ids=" + join(ids))));
+        }));
+        ops.add(new Operation("GET " + PRODUCTS + "/{productId}/variants", 150, (tenant, ctx) ->
+                ctx.timed("GET " + PRODUCTS + "/{productId}/variants",
+                        get(tenant.path("/products/" + tenant.randomProduct(ctx.random) + "/variants")))));
+        ops.add(new Operation("GET " + PRODUCTS + "/{id}/image", 20, (tenant, ctx) ->
+                ctx.timed("GET " + PRODUCTS + "/{id}/image",
+                        get(tenant.path("/products/" + tenant.imageProductId + "/image?size=small")))));
+        ops.add(new Operation("POST /api/{tenantSlug}/cart/quote", 40, (tenant, ctx) -> {
+            StringBuilder lines = new StringBuilder();
+            for (int i = 0; i < 5; i++) {
+                lines.append(i == 0 ? "" : ",")
+                        .append("{\"variantId\":").append(tenant.randomVariant(ctx.random)).append(",\"quantity\":1}");
+            }
+            ctx.timed("POST /api/{tenantSlug}/cart/quote",
+                    post(tenant.path("/cart/quote"), null, "{\"lines\":[" + lines + "]}"));
+        }));
+        ops.add(new Operation("POST /api/{tenantSlug}/reservations", 30, (tenant, ctx) -> {
+            HttpResponse<String> reserved = ctx.timed("POST /api/{tenantSlug}/reservations",
+                    post(tenant.path("/reservations"), null,
+                            "{\"variantId\":" + tenant.randomVariant(ctx.random) + ",\"quantity\":1}"));
+            if (reserved.statusCode() == 201) {
+                String id = json(reserved).get("id").asText();
+                ctx.timed("POST /api/{tenantSlug}/reservations/{reservationId}/release",
+                        post(tenant.path("/reservations/" + id + "/release"), null, ""));
+            }
+        }));
+
+        // Admin writes
+        ops.add(new Operation("POST " + PRODUCTS, 20, (tenant, ctx) -> createProduct(tenant, ctx)));
+        ops.add(new Operation("PUT " + PRODUCTS + "/{id}", 30, (tenant, ctx) -> {
+            CreatedProduct product = tenant.created.peek();
+            if (product == null) {
+                createProduct(tenant, ctx);
+                return;
+            }
+            ctx.timed("PUT " + PRODUCTS + "/{id}", put(tenant.path("/products/" + product.id), tenant.session,
+                    productJson(product.name, 100 + ctx.random.nextInt(900))));
+        }));
+        ops.add(new Operation("DELETE " + PRODUCTS + "/{id}", 10, (tenant, ctx) -> {
+            CreatedProduct product = tenant.created.poll();
+            if (product != null) {
+                ctx.timed("DELETE " + PRODUCTS + "/{id}", delete(tenant.path("/products/" + product.id), tenant.session));
+            }
+        }));
+        ops.add(new Operation("POST " + PRODUCTS + "/{productId}/variants", 20, (tenant, ctx) -> {
+            HttpResponse<String> response = ctx.timed("POST " + PRODUCTS + "/{productId}/variants",
+                    post(tenant.path("/products/" + tenant.randomProduct(ctx.random) + "/variants"), tenant.session,
+                            variantJson(ctx.random)));
+            if (response.statusCode() == 200) {
+                tenant.createdVariants.add(json(response).get("id").asLong());
+            }
+        }));
+        ops.add(new Operation("PUT " + PRODUCTS + "/variants/{variantId}", 20, (tenant, ctx) ->
+                ctx.timed("PUT " + PRODUCTS + "/variants/{variantId}",
+                        put(tenant.path("/products/variants/" + tenant.randomVariant(ctx.random)), tenant.session,
+                                variantJson(ctx.random)))));
+        ops.add(new Operation("DELETE " + PRODUCTS + "/variants/{variantId}", 10, (tenant, ctx) -> {
+            Long variantId = tenant.createdVariants.poll();
+            if (variantId != null) {
+                ctx.timed("DELETE " + PRODUCTS + "/variants/{variantId}",
+                        delete(tenant.path("/products/variants/" + variantId), tenant.session));
+            }
+        }));
+        ops.add(new Operation("POST " + PRODUCTS + "/{productId}/variants/batch", 10, (tenant, ctx) ->
+                ctx.timed("POST " + PRODUCTS + "/{productId}/variants/batch",
+                        post(tenant.path("/products/" + tenant.randomProduct(ctx.random) + "/variants/batch"),
+                                tenant.session,
+                                "{\"operations\":[{\"type\":\"CREATE\",\"variant\":" + variantJson(ctx.random)
+                                        + "},{\"type\":\"CREATE\",\"variant\":" + variantJson(ctx.random) + "}]}"))));
+        ops.add(new Operation("POST " + PRODUCTS + "/variants/{variantId}/stock", 10, (tenant, ctx) ->
+                ctx.timed("POST " + PRODUCTS + "/variants/{variantId}/stock",
+                        post(tenant.path("/products/variants/" + tenant.randomVariant(ctx.random) + "/stock"),
+                                tenant.session, "{\"delta\":5}"))));
+        ops.add(new Operation("POST " + PRODUCTS + "/{id}/image", 2, (tenant, ctx) ->
+                ctx.timed("POST " + PRODUCTS + "/{id}/image",
+                        multipart(tenant.path("/products/" + tenant.imageProductId + "/image"), tenant.session))));
+
+        // Admin session lifecycle on a per-worker probe user, so concurrent
+        // workers do not expire each other's sessions
+        ops.add(new Operation("POST " + ADMINS + "/login", 20, (tenant, ctx) -> {
+            String username = "probe-" + ctx.worker % probeAdmins;
+            HttpResponse<String> login = ctx.timed("POST " + ADMINS + "/login", post(tenant.path("/admins/login"), null,
+                    "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"));
+            String session = login.headers().allValues("set-cookie").stream()
+                    .filter(cookie -> cookie.startsWith("JSESSIONID="))
+                    .map(cookie -> cookie.substring(0, cookie.indexOf(';')))
+                    .findFirst().orElse(null);
+            ctx.timed("GET " + ADMINS + "/me", get(tenant.path("/admins/me"), session));
+            ctx.timed("POST " + ADMINS + "/logout", post(tenant.path("/admins/logout"), session, ""));
+        }));
+        return ops;
+    }
+
+    private void createProduct(TenantData tenant, WorkerContext ctx) throws Exception {
+        String name = "Load " + UUID.randomUUID();
+        HttpResponse<String> response = ctx.timed("POST " + PRODUCTS,
+                post(tenant.path("/products"), tenant.session, productJson(name, 250)));
+        if (response.statusCode() == 200) {
+            tenant.created.add(new CreatedProduct(json(response).get("id").asLong(), name));
+        }
+    }
+
+    // --- Reservation contention scenario ---
+
+    private void runReservationContention() throws Exception {
+        int concurrency = Integer.parseInt(option("concurrency", "256"));
+        int stock = Integer.parseInt(option("reservation-stock", "10000"));
+        TenantData tenant = tenants.get(0);
+        int variantCount = Math.min(Integer.parseInt(option("reservation-variants", "1")),
+                Math.min(concurrency, tenant.variantIds.size()));
+        List<Long> variantIds = tenant.variantIds.subList(0, variantCount);
+
+        // Reset the variants to exactly the requested stock
+        Map<Long, Integer> current = stockOf(tenant, variantIds);
+        for (long variantId : variantIds) {
+            send(post(tenant.path("/products/variants/" + variantId + "/stock"), tenant.session,
+                    "{\"delta\":" + (stock - current.get(variantId)) + "}"));
+        }
+
+        System.out.printf("Reservation contention: %d workers on %d variant(s) with stock %d each%n",
+                concurrency, variantCount, stock);
+        AtomicLongArray reserved = new AtomicLongArray(variantCount);
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < concurrency; w++) {
+                int slot = w % variantCount;
+                long variantId = variantIds.get(slot);
+                executor.submit(() -> {
+                    while (true) {
+                        HttpResponse<String> response = send(post(tenant.path("/reservations"), null,
+                                "{\"variantId\":" + variantId + ",\"quantity\":1}"));
+                        if (response.statusCode() == 201) {
+                            reserved.incrementAndGet(slot);
+                        } else if (response.statusCode() == 409) {
+                            rejected.incrementAndGet();
+                            return null;
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    }
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        Map<Long, Integer> remaining = stockOf(tenant, variantIds);
+
+        long totalReserved = 0;
+        long oversell = 0;
+        boolean mismatch = false;
+        for (int i = 0; i < variantCount; i++) {
+            long variantReserved = reserved.get(i);
+            totalReserved += variantReserved;
+            oversell += Math.max(0, variantReserved - stock);
+            mismatch |= remaining.get(variantIds.get(i)) != stock - variantReserved;
+        }
+        long remainingTotal = remaining.values().stream().mapToLong(Integer::longValue).sum();
+        System.out.printf("reserved=%d rejected=%d failed=%d remaining=%d in %.1fs -> %.0f reservations/s, oversell=%d%n",
+                totalReserved, rejected.get(), failed.get(), remainingTotal, seconds, totalReserved / seconds,
+                oversell);
+        if (oversell > 0 || mismatch) {
+            throw new IllegalStateException("Stock accounting mismatch");
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("scenario", "reservations");
+        report.put("concurrency", concurrency);
+        report.put("variants", variantCount);
+        report.put("stock", stock);
+        report.put("reserved", totalReserved);
+        report.put("rejected", rejected.get());
+        report.put("failed", failed.get());
+        report.put("remainingStock", remainingTotal);
+        report.put("reservationsPerSecond", totalReserved / seconds);
+        report.put("oversell", oversell);
+        writeReport(report);
+    }
+
+    /**
+     * Current stock of the given variants, all from the tenant's product sample.
+     */
+    private Map<Long, Integer> stockOf(TenantData tenant, List<Long> variantIds) throws Exception {
+        Map<Long, Integer> stock = new HashMap<>();
+        List<Long> sample = tenant.productIds.subList(0, Math.min(300, tenant.productIds.size()));
+        for (JsonNode lookup : json(send(get(tenant.path("/products/batch?includeVariants=true&ids=" + join(sample)))))) {
+            for (JsonNode variant : lookup.path("variants")) {
+                long id = variant.get("id").asLong();
+                if (variantIds.contains(id)) {
+                    stock.put(id, variant.path("stock").asInt(0));
+                }
+            }
+        }
+        for (long variantId : variantIds) {
+            if (!stock.containsKey(variantId)) {
+                throw new IllegalStateException("Variant " + variantId + " not found");
+            }
+        }
+        return stock;
+    }
+
+    // --- Reporting ---
+
+    private Map<String, Map<String, Long>> queryStats() {
+        try {
+            // Any admin session will do; the stats are not tenant data
+            HttpResponse<String> response = send(get("/internal/query-stats", tenants.get(0).session));
+            if (response.statusCode() != 200) {
+                return Map.of();
+            }
+            Map<String, Map<String, Long>> stats = new HashMap<>();
+            json(response).fields().forEachRemaining(entry -> stats.put(entry.getKey(), Map.of(
+                    "requests", entry.getValue().path("requests").asLong(),
+                    "statements", entry.getValue().path("statements").asLong())));
+            return stats;
+        } catch (Exception e) {
+            return Map.of();
+        }
+    }
+
+    private void report(Map<String, Recorder> recorders, Duration duration,
+            Map<String, Map<String, Long>> before, Map<String, Map<String, Long>> after) throws IOException {
+        double seconds = duration.toMillis() / 1000.0;
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+
+        System.out.printf("%n%-62s %8s %9s %9s %9s %9s %7s %7s%n",
+                "endpoint", "count", "req/s", "p50 ms", "p99 ms", "p999 ms", "errors", "sql/req");
+        long total = 0;
+        for (Map.Entry<String, Recorder> entry : recorders.entrySet()) {
+            Recorder recorder = entry.getValue();
+            long[] sorted = recorder.sorted();
+            total += sorted.length;
+
+            Double queriesPerRequest = null;
+            Map<String, Long> end = after.get(entry.getKey());
+            if (end != null) {
+                Map<String, Long> start = before.getOrDefault(entry.getKey(), Map.of());
+                long requests = end.get("requests") - start.getOrDefault("requests", 0L);
+                long statements = end.get("statements") - start.getOrDefault("statements", 0L);
+                if (requests > 0) {
+                    queriesPerRequest = statements / (double) requests;
+                }
+            }
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", entry.getKey());
+            row.put("count", sorted.length);
+            row.put("throughput", sorted.length / seconds);
+            row.put("p50Ms", percentile(sorted, 0.50));
+            row.put("p99Ms", percentile(sorted, 0.99));
+            row.put("p999Ms", percentile(sorted, 0.999));
+            row.put("errors", recorder.errors);
+            row.put("queriesPerRequest", queriesPerRequest);
+            endpoints.add(row);
+
+            System.out.printf("%-62s %8d %9.1f %9.2f %9.2f %9.2f %7d %7s%n", entry.getKey(), sorted.length,
+                    sorted.length / seconds, percentile(sorted, 0.50), percentile(sorted, 0.99),
+                    percentile(sorted, 0.999), recorder.errors,
+                    queriesPerRequest == null ? "-" : String.format("%.2f", queriesPerRequest));
+        }
+        System.out.printf("%ntotal: %d requests, %.1f req/s%n", total, total / seconds);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("scenario", "mixed");
+        report.put("options", new TreeMap<>(options));
+        report.put("durationSeconds", seconds);
+        report.put("totalThroughput", total / seconds);
+        report.put("endpoints", endpoints);
+        writeReport(report);
+    }
+
+    private void writeReport(Map<String, Object> report) throws IOException {
+        Path path = Path.of(option("report", "target/loadtest-report.json"));
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        objectMapper.writeValue(path.toFile(), report);
+        System.out.println("Report written to " + path.toAbsolutePath());
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    // --- HTTP helpers ---
+
+    private HttpRequest get(String path) {
+        return get(path, null);
+    }
+
+    private HttpRequest get(String path, String session) {
+        return request(path, session).GET().build();
+    }
+
+    private HttpRequest post(String path, String session, String body) {
+        return request(path, session)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest put(String path, String session, String body) {
+        return request(path, session)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest delete(String path, String session) {
+        return request(path, session).DELETE().build();
+    }
+
+    private HttpRequest multipart(String path, String session) {
+        String boundary = "loadtest-" + UUID.randomUUID();
+        byte[] head = ("--" + boundary + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"p.png\"\r\n"
+                + "Content-Type: image/png\r\n\r\n").getBytes();
+        byte[] tail = ("\r\n--" + boundary + "--\r\n").getBytes();
+        byte[] body = new byte[head.length + TINY_PNG.length + tail.length];
+        System.arraycopy(head, 0, body, 0, head.length);
+        System.arraycopy(TINY_PNG, 0, body, head.length, TINY_PNG.length);
+        System.arraycopy(tail, 0, body, head.length + TINY_PNG.length, tail.length);
+        return request(path, session)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path, String session) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30));
+        if (session != null) {
+            builder.header("Cookie", session);
+        }
+        return builder;
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private JsonNode json(HttpResponse<String> response) throws IOException {
+        return objectMapper.readTree(response.body());
+    }
+
+    private static String productJson(String name, int price) {
+        return "{\"name\":\"" + name + "\",\"category\":\"load\",\"description\":\"load test\",\"price\":"
+                + price + ",\"unit\":\"kg\",\"active\":true}";
+    }
+
+    private static String variantJson(Random random) {
+        return "{\"quantityValue\":" + (1 + random.nextInt(5)) + ",\"quantityUnit\":\"kg\",\"price\":"
+                + (50 + random.nextInt(500)) + ",\"active\":true}";
+    }
+
+    private static String join(List<Long> ids) {
+        StringBuilder joined = new StringBuilder();
+        for (Long id : ids) {
+            joined.append(joined.length() == 0 ? "" : ",").append(id);
+        }
+        return joined.toString();
+    }
+
+    private static void sleepUntil(long nanoTime) throws InterruptedException {
+        long remaining = nanoTime - System.nanoTime();
+        if (remaining > 0) {
+            Thread.sleep(Duration.ofNanos(remaining));
+        }
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    /**
+     * A valid 1x1 PNG used for image upload traffic.
+     */
+    private static final byte[] TINY_PNG = java.util.Base64.getDecoder().decode(
+            "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mP8z8BQDwAEhQGAhKmMIQAAAABJRU5ErkJggg==");
+
+    // --- State ---
+
+    private static final class TenantData {
+        private final String slug;
+        private final List<Long> productIds = new ArrayList<>();
+        private final List<Long> variantIds = new ArrayList<>();
+        private final ConcurrentLinkedQueue<CreatedProduct> created = new ConcurrentLinkedQueue<>();
+        private final ConcurrentLinkedQueue<Long> createdVariants = new ConcurrentLinkedQueue<>();
+        private String session;
+        private Long imageProductId;
+
+        TenantData(String slug) {
+            this.slug = slug;
+        }
+
+        String path(String suffix) {
+            return "/api/" + slug + suffix;
+        }
+
+        long randomProduct(Random random) {
+            return productIds.get(random.nextInt(productIds.size()));
+        }
+
+        long randomVariant(Random random) {
+            return variantIds.get(random.nextInt(variantIds.size()));
+        }
+    }
+
+    private record CreatedProduct(long id, String name) {
+    }
+
+    @FunctionalInterface
+    private interface Action {
+        void run(TenantData tenant, WorkerContext context) throws Exception;
+    }
+
+    private record Operation(String name, int weight, Action action) {
+    }
+
+    private final class WorkerContext {
+        private final int worker;
+        private final Random random;
+        private final Map<String, Recorder> recorders;
+        private final long measureFrom;
+
+        WorkerContext(int worker, Random random, Map<String, Recorder> recorders, long measureFrom) {
+            this.worker = worker;
+            this.random = random;
+            this.recorders = recorders;
+            this.measureFrom = measureFrom;
+        }
+
+        Recorder recorder(String name) {
+            return recorders.computeIfAbsent(name, n -> new Recorder());
+        }
+
+        HttpResponse<String> timed(String name, HttpRequest request) throws IOException, InterruptedException {
+            long start = System.nanoTime();
+            HttpResponse<String> response = send(request);
+            long elapsed = System.nanoTime() - start;
+            if (start >= measureFrom) {
+                Recorder recorder = recorder(name);
+                recorder.record(elapsed);
+                if (response.statusCode() >= 500 || response.statusCode() == 401 || response.statusCode() == 403) {
+                    recorder.errors++;
+                }
+            }
+            return response;
+        }
+    }
+
+    /**
+     * Latency samples of one endpoint, owned by a single worker until merged.
+     */
+    private static final class Recorder {
+        private long[] samples = new long[1024];
+        private int size;
+        private long errors;
+
+        void record(long nanos) {
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = nanos;
+        }
+
+        void merge(Recorder other) {
+            for (int i = 0; i < other.size; i++) {
+                record(other.samples[i]);
+            }
+            errors += other.errors;
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(samples, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
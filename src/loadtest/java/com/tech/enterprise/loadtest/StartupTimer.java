@@ -0,0 +1,230 @@
+package com.tech.enterprise.loadtest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Starts the application several times and reports how long each start took:
+ * Spring's own "Started ... in" time, the JVM uptime it reports alongside, and
+ * the wall-clock time from process launch until the first HTTP request is
+ * answered.
+ *
+ * Usage (all options optional):
+ *
+ * <pre>
+ * ./mvnw -Paot package -DskipTests
+ * ./mvnw -Ploadtest test-compile exec:exec -Dloadtest.main=com.tech.enterprise.loadtest.StartupTimer \
+ *     -Dloadtest.args="--runs=5 --jvm-args='-Dspring.aot.enabled=true' --app-args='--spring.profiles.active=fast-startup' --report=target/startup-report.json"
+ * </pre>
+ *
+ * Options: --jar, --java, --jvm-args, --app-args, --command (replaces java,
+ * jvm args and -jar entirely), --port, --path, --runs, --timeout, --report.
+ * Multi-word values are quoted with single quotes and split on spaces.
+ *
+ * The first request defaults to /readyz, which also checks a database
+ * connection; any status below 500 counts as served.
+ */
+public class StartupTimer {
+
+    private static final Pattern STARTED = Pattern.compile(
+            "Started \\w+ in ([0-9.]+) seconds \\(process running for ([0-9.]+)\\)");
+    private static final int OUTPUT_TAIL_LINES = 40;
+
+    private final Map<String, String> options;
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        new StartupTimer(options).run();
+    }
+
+    StartupTimer(Map<String, String> options) {
+        this.options = options;
+    }
+
+    void run() throws Exception {
+        int runs = Integer.parseInt(option("runs", "5"));
+        List<Map<String, Object>> results = new ArrayList<>(runs);
+        for (int i = 1; i <= runs; i++) {
+            Map<String, Object> result = startOnce();
+            System.out.printf("Run %d: started in %ss (JVM %ss), first request after %d ms%n", i,
+                    result.get("startedSeconds"), result.get("jvmSeconds"), result.get("firstRequestMs"));
+            results.add(result);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("options", new TreeMap<>(options));
+        report.put("command", command());
+        report.put("startedSeconds", summary(results, "startedSeconds"));
+        report.put("jvmSeconds", summary(results, "jvmSeconds"));
+        report.put("firstRequestMs", summary(results, "firstRequestMs"));
+        report.put("runs", results);
+
+        Path path = Path.of(option("report", "target/startup-report.json"));
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        objectMapper.writeValue(path.toFile(), report);
+        System.out.println("Report written to " + path.toAbsolutePath());
+    }
+
+    private Map<String, Object> startOnce() throws Exception {
+        URI uri = URI.create("http://localhost:" + option("port", "18090") + option("path", "/readyz"));
+        Duration timeout = Duration.parse(option("timeout", "PT2M"));
+
+        long launched = System.nanoTime();
+        Process process = new ProcessBuilder(command()).redirectErrorStream(true).start();
+
+        Deque<String> tail = new ArrayDeque<>();
+        StartedLine started = new StartedLine();
+        Thread.ofPlatform().daemon().start(() -> readOutput(process, tail, started));
+
+        try {
+            long firstRequestNanos = awaitFirstResponse(process, uri, launched + timeout.toNanos());
+            if (firstRequestNanos < 0) {
+                synchronized (tail) {
+                    tail.forEach(System.err::println);
+                }
+                throw new IllegalStateException(process.isAlive()
+                        ? "No response from " + uri + " within " + timeout
+                        : "Application exited with code " + process.exitValue() + " before serving a request");
+            }
+            // The log line is written around the time the server starts accepting
+            // requests, and the reader may not have seen it yet
+            long logDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+            while (Double.isNaN(started.seconds) && System.nanoTime() < logDeadline) {
+                Thread.sleep(10);
+            }
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("startedSeconds", started.seconds);
+            result.put("jvmSeconds", started.jvmSeconds);
+            result.put("firstRequestMs", (firstRequestNanos - launched) / 1_000_000);
+            return result;
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    /**
+     * @return nanoTime of the first response with a status below 500, or -1
+     */
+    private long awaitFirstResponse(Process process, URI uri, long deadline) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(5)).GET().build();
+        while (System.nanoTime() < deadline && process.isAlive()) {
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() < 500) {
+                    return System.nanoTime();
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(10);
+        }
+        return -1;
+    }
+
+    private static void readOutput(Process process, Deque<String> tail, StartedLine started) {
+        try (BufferedReader output = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = output.readLine()) != null) {
+                Matcher matcher = STARTED.matcher(line);
+                if (matcher.find()) {
+                    started.jvmSeconds = Double.parseDouble(matcher.group(2));
+                    started.seconds = Double.parseDouble(matcher.group(1));
+                }
+                synchronized (tail) {
+                    tail.addLast(line);
+                    if (tail.size() > OUTPUT_TAIL_LINES) {
+                        tail.removeFirst();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // Process ended
+        }
+    }
+
+    private List<String> command() {
+        List<String> command = new ArrayList<>();
+        if (options.containsKey("command")) {
+            command.addAll(split(options.get("command")));
+        } else {
+            command.add(option("java", ProcessHandle.current().info().command().orElse("java")));
+            command.addAll(split(option("jvm-args", "")));
+            command.add("-jar");
+            command.add(option("jar", "target/demo-0.0.1-SNAPSHOT.jar"));
+        }
+        command.add("--server.port=" + option("port", "18090"));
+        command.addAll(split(option("app-args", "")));
+        return command;
+    }
+
+    private static Map<String, Object> summary(List<Map<String, Object>> results, String key) {
+        double[] values = results.stream()
+                .mapToDouble(result -> ((Number) result.get(key)).doubleValue())
+                .sorted()
+                .toArray();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("min", values[0]);
+        summary.put("median", values.length % 2 == 1
+                ? values[values.length / 2]
+                : (values[values.length / 2 - 1] + values[values.length / 2]) / 2);
+        summary.put("max", values[values.length - 1]);
+        return summary;
+    }
+
+    private static List<String> split(String value) {
+        return value.isBlank() ? List.of() : Arrays.asList(value.trim().split("\\s+"));
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    /**
+     * Times from the "Started ... in" log line, written by the output reader.
+     */
+    private static final class StartedLine {
+        volatile double seconds = Double.NaN;
+        volatile double jvmSeconds = Double.NaN;
+    }
+}
@@ -0,0 +1,172 @@
+package com.tech.enterprise.loadtest;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Seeds a deterministic multi-tenant dataset for load testing.
+ *
+ * Tenants are named tenant-0001..tenant-N and receive a Zipf-skewed share of
+ * the products, so tenant-0001 is the largest. Every tenant gets an "admin"
+ * user plus probe-0..probe-(P-1) users for login/logout traffic, all with the
+ * password from app.loadtest.admin-password. The same seed always produces
+ * the same data. Runs only with the loadtest profile and only on an empty
+ * database. It lives with the load-test sources, so it is on the classpath
+ * only when the application is started from the test classpath (see README).
+ */
+@Component
+@Profile("loadtest")
+@RequiredArgsConstructor
+@Slf4j
+public class SyntheticDataSeeder implements ApplicationRunner {
+
+    private static final String[] CATEGORIES = { "grains", "pulses", "spices", "oils", "snacks", "beverages" };
+    private static final String[] UNITS = { "g", "kg", "ml", "l" };
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${app.loadtest.seed:42}")
+    private long seed;
+
+    @Value("${app.loadtest.tenants:50}")
+    private int tenantCount;
+
+    @Value("${app.loadtest.products:20000}")
+    private int productCount;
+
+    @Value("${app.loadtest.zipf-exponent:1.1}")
+    private double zipfExponent;
+
+    @Value("${app.loadtest.max-variants-per-product:4}")
+    private int maxVariantsPerProduct;
+
+    @Value("${app.loadtest.probe-admins:64}")
+    private int probeAdmins;
+
+    @Value("${app.loadtest.admin-password:loadtest}")
+    private String adminPassword;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Long existing = jdbcTemplate.queryForObject("select count(*) from tenants", Long.class);
+        if (existing != null && existing > 0) {
+            log.info("Load-test seeding skipped: {} tenants already present", existing);
+            return;
+        }
+
+        long started = System.nanoTime();
+        Random random = new Random(seed);
+        ZipfDistribution zipf = new ZipfDistribution(tenantCount, zipfExponent);
+        // One hash for every admin keeps seeding fast; logins still pay full BCrypt cost
+        String passwordHash = passwordEncoder.encode(adminPassword);
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.of(2025, 1, 1, 0, 0));
+
+        int totalVariants = 0;
+        for (int t = 0; t < tenantCount; t++) {
+            String slug = String.format("tenant-%04d", t + 1);
+            jdbcTemplate.update("insert into tenants (name, slug, active, catalog_version) values (?, ?, true, 0)",
+                    "Tenant " + (t + 1), slug);
+            Long tenantId = jdbcTemplate.queryForObject("select id from tenants where slug = ?", Long.class, slug);
+
+            seedAdmins(tenantId, passwordHash, createdAt);
+
+            int products = Math.max(1, (int) Math.round(productCount * zipf.probability(t)));
+            seedProducts(tenantId, slug, products, random);
+            totalVariants += seedVariants(tenantId, random);
+        }
+
+        log.info("Load-test seeding finished: {} tenants, ~{} products, {} variants in {} ms",
+                tenantCount, productCount, totalVariants, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void seedAdmins(Long tenantId, String passwordHash, Timestamp createdAt) {
+        List<Object[]> rows = new ArrayList<>(probeAdmins + 1);
+        rows.add(new Object[] { "admin", passwordHash, createdAt, tenantId });
+        for (int p = 0; p < probeAdmins; p++) {
+            rows.add(new Object[] { "probe-" + p, passwordHash, createdAt, tenantId });
+        }
+        jdbcTemplate.batchUpdate(
+                "insert into admins (username, password_hash, active, created_at, tenant_id) values (?, ?, true, ?, ?)",
+                rows);
+    }
+
+    private void seedProducts(Long tenantId, String slug, int count, Random random) {
+        List<Object[]> rows = new ArrayList<>(Math.min(count, BATCH_SIZE));
+        for (int i = 0; i < count; i++) {
+            String name = "Product " + (i + 1);
+            rows.add(new Object[] {
+                    name,
+                    tenantId,
+                    "product_" + (i + 1) + "_" + tenantId + "_" + slug,
+                    CATEGORIES[random.nextInt(CATEGORIES.length)],
+                    "Synthetic product " + (i + 1) + " of " + slug,
+                    BigDecimal.valueOf(100 + random.nextInt(99_900), 2),
+                    UNITS[random.nextInt(UNITS.length)] });
+            if (rows.size() == BATCH_SIZE) {
+                insertProducts(rows);
+                rows.clear();
+            }
+        }
+        if (!rows.isEmpty()) {
+            insertProducts(rows);
+        }
+    }
+
+    private void insertProducts(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("insert into products (name, tenant_id, image_name, category, description, price, unit, active) "
+                + "values (?, ?, ?, ?, ?, ?, ?, true)", rows);
+    }
+
+    private int seedVariants(Long tenantId, Random random) {
+        List<Long> productIds = jdbcTemplate.queryForList(
+                "select id from products where tenant_id = ? order by id", Long.class, tenantId);
+
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        int total = 0;
+        for (Long productId : productIds) {
+            int variants = 1 + random.nextInt(maxVariantsPerProduct);
+            for (int v = 0; v < variants; v++) {
+                rows.add(new Object[] {
+                        productId,
+                        tenantId,
+                        BigDecimal.valueOf(250L * (v + 1)),
+                        "g",
+                        BigDecimal.valueOf(100 + random.nextInt(49_900), 2),
+                        1_000 + random.nextInt(9_000) });
+                if (rows.size() == BATCH_SIZE) {
+                    insertVariants(rows);
+                    total += rows.size();
+                    rows.clear();
+                }
+            }
+        }
+        if (!rows.isEmpty()) {
+            insertVariants(rows);
+            total += rows.size();
+        }
+        return total;
+    }
+
+    private void insertVariants(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("insert into product_variants "
+                + "(product_id, tenant_id, quantity_value, quantity_unit, price, active, stock) "
+                + "values (?, ?, ?, ?, ?, true, ?)", rows);
+    }
+}
@@ -0,0 +1,43 @@
+package com.tech.enterprise.loadtest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Zipf distribution over ranks 0..n-1: rank k has weight 1 / (k + 1)^exponent.
+ * Used to give synthetic tenants a skewed size and traffic share.
+ */
+public final class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    public ZipfDistribution(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive");
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= sum;
+        }
+    }
+
+    /**
+     * Probability of rank k.
+     */
+    public double probability(int k) {
+        return k == 0 ? cumulative[0] : cumulative[k] - cumulative[k - 1];
+    }
+
+    /**
+     * Draw a rank.
+     */
+    public int sample(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+}
@@ -2,8 +2,10 @@ package com.tech.enterprise;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class EnterpriseBackendApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,20 @@
+package com.tech.enterprise.audit;
+
+import java.time.Instant;
+
+/**
+ * An admin mutation captured inside the write transaction. Before and after
+ * are JSON snapshots taken at capture time, so later changes to the entity
+ * cannot leak into the record.
+ */
+public record AuditEvent(Long tenantId, Long adminId, String adminUsername, EntityType entityType,
+        Long entityId, Action action, String before, String after, Instant occurredAt) {
+
+    public enum EntityType {
+        PRODUCT, VARIANT
+    }
+
+    public enum Action {
+        CREATE, UPDATE, DELETE
+    }
+}
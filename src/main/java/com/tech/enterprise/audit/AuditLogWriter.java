@@ -0,0 +1,274 @@
+package com.tech.enterprise.audit;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes committed audit events to audit_log off the request path.
+ *
+ * Events go into a bounded lock-free queue that a single writer thread drains
+ * into multi-row INSERTs of up to app.audit.batch-size rows. The writer wakes
+ * every app.audit.flush-interval, or as soon as a full batch is queued. When
+ * the queue is full, app.audit.overflow-policy decides what happens:
+ * CALLER_RUNS writes the event synchronously on the committing thread, in a
+ * transaction of its own (nothing is lost, the request pays the round trip),
+ * DROP_NEWEST discards the incoming event and DROP_OLDEST discards the oldest
+ * queued one. Dropped events are counted and logged.
+ *
+ * On shutdown the queue is flushed before the DataSource closes; events that
+ * arrive after that point are written synchronously.
+ */
+@Component
+@Slf4j
+public class AuditLogWriter implements MeterBinder {
+
+    public enum OverflowPolicy {
+        CALLER_RUNS, DROP_NEWEST, DROP_OLDEST
+    }
+
+    private static final String COLUMNS = "insert into audit_log (tenant_id, admin_id, admin_username, "
+            + "entity_type, entity_id, action, before_value, after_value, occurred_at) values ";
+    private static final String ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    /**
+     * Explicit types so null binds do not make the driver look up parameter metadata.
+     */
+    private static final int[] ROW_TYPES = { Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.VARCHAR,
+            Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP };
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNew;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+
+    private final ConcurrentLinkedQueue<AuditEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    /**
+     * SQL for a full batch, built once.
+     */
+    private final String fullBatchSql;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            @Value("${app.audit.queue-capacity:10000}") int capacity,
+            @Value("${app.audit.batch-size:200}") int batchSize,
+            @Value("${app.audit.flush-interval:PT1S}") Duration flushInterval,
+            @Value("${app.audit.overflow-policy:CALLER_RUNS}") OverflowPolicy overflowPolicy) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.overflowPolicy = overflowPolicy;
+        this.fullBatchSql = insertSql(batchSize);
+
+        this.writer = new Thread(this::drainLoop, "audit-log-writer");
+        this.writer.setDaemon(true);
+    }
+
+    @PostConstruct
+    void start() {
+        writer.start();
+    }
+
+    /**
+     * Queue an event once its transaction has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuditEvent(AuditEvent event) {
+        if (!running) {
+            write(List.of(event));
+            return;
+        }
+
+        if (queued.incrementAndGet() > capacity) {
+            switch (overflowPolicy) {
+                case CALLER_RUNS -> {
+                    queued.decrementAndGet();
+                    write(List.of(event));
+                    return;
+                }
+                case DROP_NEWEST -> {
+                    queued.decrementAndGet();
+                    recordDrop();
+                    return;
+                }
+                case DROP_OLDEST -> {
+                    if (queue.poll() != null) {
+                        queued.decrementAndGet();
+                        recordDrop();
+                    }
+                }
+            }
+        }
+
+        queue.offer(event);
+        if (queued.get() == batchSize) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Write everything still queued, then stop the writer thread.
+     */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(Duration.ofSeconds(10).toMillis());
+        // The writer normally empties the queue on its way out; this covers a writer that is stuck
+        drain();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("audit.queue.size", queued, AtomicInteger::get)
+                .description("Audit events waiting to be written")
+                .register(registry);
+        FunctionCounter.builder("audit.events", written, AtomicLong::get)
+                .tag("result", "written")
+                .register(registry);
+        FunctionCounter.builder("audit.events", dropped, AtomicLong::get)
+                .tag("result", "dropped")
+                .register(registry);
+        FunctionCounter.builder("audit.events", failed, AtomicLong::get)
+                .tag("result", "failed")
+                .register(registry);
+    }
+
+    private void drainLoop() {
+        while (running) {
+            if (queued.get() < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+            try {
+                drain();
+            } catch (RuntimeException e) {
+                // Keep the writer alive for later batches
+                log.error("Unexpected audit writer failure", e);
+            }
+        }
+        drain();
+    }
+
+    private void drain() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        AuditEvent event;
+        while ((event = queue.poll()) != null) {
+            queued.decrementAndGet();
+            batch.add(event);
+            if (batch.size() == batchSize) {
+                writeWithRetry(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeWithRetry(batch);
+        }
+    }
+
+    private void writeWithRetry(List<AuditEvent> batch) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                insert(batch);
+                written.addAndGet(batch.size());
+                return;
+            } catch (DataAccessException e) {
+                if (attempt == MAX_ATTEMPTS || !running) {
+                    failed.addAndGet(batch.size());
+                    log.error("Failed to write {} audit events", batch.size(), e);
+                    return;
+                }
+                log.warn("Audit batch write failed (attempt {}), retrying: {}", attempt, e.getMessage());
+                LockSupport.parkNanos(Duration.ofMillis(500L * attempt).toNanos());
+            }
+        }
+    }
+
+    /**
+     * Synchronous write for overflow and post-shutdown events. These run in an
+     * after-commit listener, where the caller's connection is still bound but
+     * its transaction has committed: a plain insert there would join nothing
+     * and be rolled back when the connection returns to the pool.
+     */
+    private void write(List<AuditEvent> events) {
+        try {
+            requiresNew.executeWithoutResult(status -> insert(events));
+            written.addAndGet(events.size());
+        } catch (DataAccessException | TransactionException e) {
+            failed.addAndGet(events.size());
+            log.error("Failed to write {} audit events", events.size(), e);
+        }
+    }
+
+    private void insert(List<AuditEvent> events) {
+        String sql = events.size() == batchSize ? fullBatchSql : insertSql(events.size());
+        Object[] args = new Object[events.size() * ROW_TYPES.length];
+        int[] types = new int[args.length];
+        for (int row = 0; row < events.size(); row++) {
+            System.arraycopy(ROW_TYPES, 0, types, row * ROW_TYPES.length, ROW_TYPES.length);
+        }
+        int i = 0;
+        for (AuditEvent event : events) {
+            args[i++] = event.tenantId();
+            args[i++] = event.adminId();
+            args[i++] = event.adminUsername();
+            args[i++] = event.entityType().name();
+            args[i++] = event.entityId();
+            args[i++] = event.action().name();
+            args[i++] = event.before();
+            args[i++] = event.after();
+            args[i++] = Timestamp.from(event.occurredAt());
+        }
+        jdbcTemplate.update(sql, args, types);
+    }
+
+    private void recordDrop() {
+        long total = dropped.incrementAndGet();
+        if (total % 1000 == 1) {
+            log.warn("Audit queue full ({} events), {} events dropped so far", capacity, total);
+        }
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(COLUMNS.length() + rows * (ROW.length() + 2));
+        sql.append(COLUMNS);
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "" : ", ").append(ROW);
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,62 @@
+package com.tech.enterprise.audit;
+
+import java.time.Instant;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tech.enterprise.audit.AuditEvent.Action;
+import com.tech.enterprise.audit.AuditEvent.EntityType;
+import com.tech.enterprise.security.AdminUserDetails;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Captures audit events from inside write transactions. Events are published
+ * like catalog changes, so AuditLogWriter only queues them once the
+ * transaction has committed and rolled-back changes are never audited.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuditRecorder {
+
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * JSON snapshot of an entity; take it before mutating a managed entity.
+     */
+    public String snapshot(Object entity) {
+        if (entity == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(entity);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize audit snapshot", e);
+        }
+    }
+
+    /**
+     * Record a change made by the current admin.
+     *
+     * @param before Snapshot taken before the change, or null for creates
+     * @param after  The entity after the change, or null for product deletes
+     */
+    public void record(Long tenantId, EntityType entityType, Long entityId, Action action, String before,
+            Object after) {
+        Long adminId = null;
+        String adminUsername = null;
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AdminUserDetails admin) {
+            adminId = admin.getAdminId();
+            adminUsername = admin.getUsername();
+        }
+        eventPublisher.publishEvent(new AuditEvent(tenantId, adminId, adminUsername, entityType, entityId,
+                action, before, snapshot(after), Instant.now()));
+    }
+}
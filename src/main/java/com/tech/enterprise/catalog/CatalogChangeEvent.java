@@ -0,0 +1,23 @@
+package com.tech.enterprise.catalog;
+
+/**
+ * Compact notification that a product or variant changed.
+ * version is the tenant's catalog version after the change and is used as
+ * the SSE event id.
+ */
+public record CatalogChangeEvent(
+        Long tenantId,
+        long version,
+        EntityType entity,
+        Action action,
+        Long id,
+        Long productId) {
+
+    public enum EntityType {
+        PRODUCT, VARIANT
+    }
+
+    public enum Action {
+        CREATED, UPDATED, DELETED
+    }
+}
@@ -0,0 +1,54 @@
+package com.tech.enterprise.catalog;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.tech.enterprise.catalog.CatalogChangeEvent.Action;
+import com.tech.enterprise.catalog.CatalogChangeEvent.EntityType;
+import com.tech.enterprise.repo.TenantRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Hands out catalog versions and publishes change events from inside a write
+ * transaction. Listeners receive the events only after the transaction commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogChangePublisher {
+
+    private final TenantRepository tenantRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Reserve the next catalog version for a tenant.
+     * Must be called inside the write transaction.
+     */
+    public long nextVersion(Long tenantId) {
+        return nextVersions(tenantId, 1);
+    }
+
+    /**
+     * Reserve count consecutive catalog versions for a tenant in one statement.
+     *
+     * @return The first reserved version
+     */
+    public long nextVersions(Long tenantId, int count) {
+        tenantRepository.incrementCatalogVersion(tenantId, count);
+        return tenantRepository.findCatalogVersionById(tenantId) - count + 1;
+    }
+
+    /**
+     * Read the tenant's committed catalog version from the database.
+     */
+    public long currentVersion(Long tenantId) {
+        return tenantRepository.findCatalogVersionById(tenantId);
+    }
+
+    /**
+     * Publish a change that was assigned the given version.
+     */
+    public void publish(Long tenantId, long version, EntityType entity, Action action, Long id, Long productId) {
+        eventPublisher.publishEvent(new CatalogChangeEvent(tenantId, version, entity, action, id, productId));
+    }
+}
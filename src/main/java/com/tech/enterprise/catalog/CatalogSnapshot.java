@@ -0,0 +1,430 @@
+package com.tech.enterprise.catalog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.tech.enterprise.dto.CatalogView;
+import com.tech.enterprise.dto.ProductView;
+import com.tech.enterprise.dto.VariantView;
+
+/**
+ * A memory-mapped catalog snapshot file: every product and variant of each
+ * tenant, with the catalog version they were read at.
+ *
+ * Layout (big-endian):
+ *
+ * <pre>
+ * header     magic "CATS", format version, tenant count
+ * directory  per tenant: tenant id, catalog version, written-at millis, block offset, block length
+ * block      product count, (product id, record offset) pairs sorted by id, product records;
+ *            each product record is followed by its variant count and variants
+ * </pre>
+ *
+ * Strings are length-prefixed UTF-8 (-1 for null) and decimals are a scale
+ * plus the unscaled bytes. Variants have no stock (see
+ * ProductVariantRepository.CATALOG_VIEW). Records are decoded from the mapping on each read,
+ * so a mapped tenant costs no heap until it is requested, and a single product
+ * is found by binary search over the block's index.
+ */
+public final class CatalogSnapshot {
+
+    private static final int MAGIC = 0x43415453;
+    /**
+     * 2: variants no longer carry stock. Files of another version are ignored.
+     */
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_BYTES = 12;
+    private static final int DIRECTORY_ENTRY_BYTES = 36;
+    private static final int INDEX_ENTRY_BYTES = 12;
+
+    /**
+     * One tenant's encoded catalog.
+     */
+    public record Block(long tenantId, long version, long writtenAtMillis, ByteBuffer data) {
+    }
+
+    private final Map<Long, Block> blocks;
+
+    private CatalogSnapshot(Map<Long, Block> blocks) {
+        this.blocks = blocks;
+    }
+
+    /**
+     * Map a snapshot file.
+     *
+     * @throws IOException If the file is missing, truncated or not a snapshot
+     */
+    public static CatalogSnapshot open(Path file) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot larger than 2 GB: " + file);
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (mapped.limit() < HEADER_BYTES || mapped.getInt(0) != MAGIC) {
+            throw new IOException("Not a catalog snapshot: " + file);
+        }
+        if (mapped.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported snapshot format " + mapped.getInt(4) + ": " + file);
+        }
+        int tenants = mapped.getInt(8);
+        if (tenants < 0 || HEADER_BYTES + (long) tenants * DIRECTORY_ENTRY_BYTES > mapped.limit()) {
+            throw new IOException("Truncated snapshot directory: " + file);
+        }
+
+        Map<Long, Block> blocks = new LinkedHashMap<>(tenants * 2);
+        for (int i = 0; i < tenants; i++) {
+            int entry = HEADER_BYTES + i * DIRECTORY_ENTRY_BYTES;
+            long tenantId = mapped.getLong(entry);
+            long offset = mapped.getLong(entry + 24);
+            int length = mapped.getInt(entry + 32);
+            if (offset < 0 || length < 0 || offset + length > mapped.limit()) {
+                throw new IOException("Truncated snapshot block for tenant " + tenantId + ": " + file);
+            }
+            blocks.put(tenantId, new Block(tenantId, mapped.getLong(entry + 8), mapped.getLong(entry + 16),
+                    mapped.slice((int) offset, length)));
+        }
+        return new CatalogSnapshot(blocks);
+    }
+
+    /**
+     * Write blocks to a new snapshot file and move it over {@code file}.
+     * Readers that mapped the previous file keep reading it.
+     *
+     * @return Bytes written
+     */
+    public static long write(Path file, List<Block> blocks) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + blocks.size() * DIRECTORY_ENTRY_BYTES);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(blocks.size());
+        long offset = header.capacity();
+        for (Block block : blocks) {
+            header.putLong(block.tenantId())
+                    .putLong(block.version())
+                    .putLong(block.writtenAtMillis())
+                    .putLong(offset)
+                    .putInt(block.data().remaining());
+            offset += block.data().remaining();
+        }
+        header.flip();
+
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                writeFully(channel, header);
+                for (Block block : blocks) {
+                    writeFully(channel, block.data().duplicate());
+                }
+                channel.force(false);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return offset;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Encode all of a tenant's products and variants (active or not).
+     */
+    public static ByteBuffer encode(List<ProductView> products, List<VariantView> variants) {
+        List<ProductView> sorted = new ArrayList<>(products);
+        sorted.sort(Comparator.comparing(ProductView::id));
+        Map<Long, List<VariantView>> variantsByProduct = new HashMap<>(sorted.size() * 2);
+        for (VariantView variant : variants) {
+            variantsByProduct.computeIfAbsent(variant.productId(), id -> new ArrayList<>()).add(variant);
+        }
+
+        int indexBytes = 4 + sorted.size() * INDEX_ENTRY_BYTES;
+        int[] offsets = new int[sorted.size()];
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(indexBytes + sorted.size() * 256);
+        try {
+            DataOutputStream records = new DataOutputStream(bytes);
+            records.write(new byte[indexBytes]);
+            for (int i = 0; i < sorted.size(); i++) {
+                offsets[i] = records.size();
+                ProductView product = sorted.get(i);
+                writeProduct(records, product);
+                List<VariantView> productVariants = variantsByProduct.getOrDefault(product.id(), List.of());
+                records.writeInt(productVariants.size());
+                for (VariantView variant : productVariants) {
+                    writeVariant(records, variant);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        ByteBuffer block = ByteBuffer.wrap(bytes.toByteArray());
+        block.putInt(0, sorted.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            block.putLong(4 + i * INDEX_ENTRY_BYTES, sorted.get(i).id());
+            block.putInt(4 + i * INDEX_ENTRY_BYTES + 8, offsets[i]);
+        }
+        return block;
+    }
+
+    public Set<Long> tenantIds() {
+        return blocks.keySet();
+    }
+
+    /**
+     * @return The tenant's block, or null if the tenant is not in the snapshot
+     */
+    public Block block(long tenantId) {
+        return blocks.get(tenantId);
+    }
+
+    /**
+     * @return Number of products over all tenants
+     */
+    public long productCount() {
+        long count = 0;
+        for (Block block : blocks.values()) {
+            count += block.data().getInt(0);
+        }
+        return count;
+    }
+
+    /**
+     * The tenant's active products, in id order, without variants.
+     */
+    public List<ProductView> products(long tenantId) {
+        ByteBuffer data = blocks.get(tenantId).data();
+        int count = data.getInt(0);
+        List<ProductView> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ProductView product = readProduct(data, recordOffset(data, i));
+            if (Boolean.TRUE.equals(product.active())) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    /**
+     * @return The product without variants, or null if the tenant has no such product
+     */
+    public ProductView product(long tenantId, long productId) {
+        ByteBuffer data = blocks.get(tenantId).data();
+        int index = find(data, productId);
+        return index < 0 ? null : readProduct(data, recordOffset(data, index));
+    }
+
+    /**
+     * Active products with their active variants, in id order, as
+     * CatalogService builds them.
+     */
+    public CatalogView catalog(long tenantId) {
+        Block block = blocks.get(tenantId);
+        ByteBuffer data = block.data();
+        int count = data.getInt(0);
+        List<ProductView> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Reader reader = new Reader(data, recordOffset(data, i));
+            ProductView product = reader.readProduct();
+            if (Boolean.TRUE.equals(product.active())) {
+                products.add(product.withVariants(reader.readVariants(tenantId, product.id(), true)));
+            }
+        }
+        return new CatalogView(block.version(), products);
+    }
+
+    private static int recordOffset(ByteBuffer data, int index) {
+        return data.getInt(4 + index * INDEX_ENTRY_BYTES + 8);
+    }
+
+    /**
+     * Binary search of the block's product index.
+     */
+    private static int find(ByteBuffer data, long productId) {
+        int low = 0;
+        int high = data.getInt(0) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long id = data.getLong(4 + mid * INDEX_ENTRY_BYTES);
+            if (id < productId) {
+                low = mid + 1;
+            } else if (id > productId) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private static ProductView readProduct(ByteBuffer data, int offset) {
+        return new Reader(data, offset).readProduct();
+    }
+
+    private static void writeProduct(DataOutputStream out, ProductView product) throws IOException {
+        out.writeLong(product.id());
+        out.writeLong(product.tenantId());
+        writeString(out, product.name());
+        writeString(out, product.imageName());
+        writeString(out, product.imageHash());
+        writeString(out, product.category());
+        writeString(out, product.description());
+        writeDecimal(out, product.price());
+        writeString(out, product.unit());
+        writeBoolean(out, product.active());
+        writeLong(out, product.version());
+    }
+
+    private static void writeVariant(DataOutputStream out, VariantView variant) throws IOException {
+        out.writeLong(variant.id());
+        writeDecimal(out, variant.quantityValue());
+        writeString(out, variant.quantityUnit());
+        writeDecimal(out, variant.price());
+        writeBoolean(out, variant.active());
+        writeLong(out, variant.version());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeInt(unscaled.length);
+        out.write(unscaled);
+        out.writeInt(value.scale());
+    }
+
+    private static void writeBoolean(DataOutputStream out, Boolean value) throws IOException {
+        out.writeByte(value == null ? -1 : value ? 1 : 0);
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    /**
+     * Sequential decoder over a block, using absolute reads so the shared
+     * mapping is never repositioned.
+     */
+    private static final class Reader {
+
+        private final ByteBuffer data;
+        private int position;
+
+        Reader(ByteBuffer data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        ProductView readProduct() {
+            long id = readLong();
+            long tenantId = readLong();
+            return new ProductView(id, readString(), tenantId, readString(), readString(), readString(),
+                    readString(), readDecimal(), readString(), readBoolean(), readNullableLong());
+        }
+
+        List<VariantView> readVariants(long tenantId, long productId, boolean activeOnly) {
+            int count = readInt();
+            List<VariantView> variants = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long id = readLong();
+                BigDecimal quantityValue = readDecimal();
+                String quantityUnit = readString();
+                BigDecimal price = readDecimal();
+                Boolean active = readBoolean();
+                Long version = readNullableLong();
+                if (!activeOnly || Boolean.TRUE.equals(active)) {
+                    variants.add(new VariantView(id, productId, tenantId, quantityValue, quantityUnit, price, active,
+                            null, version));
+                }
+            }
+            return variants;
+        }
+
+        private byte readByte() {
+            return data.get(position++);
+        }
+
+        private int readInt() {
+            int value = data.getInt(position);
+            position += 4;
+            return value;
+        }
+
+        private long readLong() {
+            long value = data.getLong(position);
+            position += 8;
+            return value;
+        }
+
+        private Long readNullableLong() {
+            return readByte() != 0 ? readLong() : null;
+        }
+
+        private Boolean readBoolean() {
+            byte value = readByte();
+            return value < 0 ? null : value == 1;
+        }
+
+        private String readString() {
+            int length = readInt();
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            data.get(position, bytes);
+            position += length;
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private BigDecimal readDecimal() {
+            int length = readInt();
+            if (length < 0) {
+                return null;
+            }
+            byte[] unscaled = new byte[length];
+            data.get(position, unscaled);
+            position += length;
+            return new BigDecimal(new BigInteger(unscaled), readInt());
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.tech.enterprise.catalog;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.tech.enterprise.dto.CatalogView;
+import com.tech.enterprise.dto.ProductView;
+import com.tech.enterprise.dto.TenantCatalogVersion;
+import com.tech.enterprise.repo.TenantRepository;
+import com.tech.enterprise.service.CatalogService;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serves public catalog reads from an on-disk snapshot while a node warms up.
+ *
+ * Every persist-interval the running node writes each active tenant's
+ * products and variants, with their catalog version, to a CatalogSnapshot
+ * file. On startup the file is memory-mapped, which takes milliseconds, and
+ * the public product and catalog endpoints answer from it instead of
+ * PostgreSQL. In the background the tenants' catalog versions are read in
+ * one query and any tenant whose version has moved on is dropped back to the
+ * database. Committed local changes drop their tenant at once; changes made on
+ * other nodes are caught by the next reconcile, every reconcile-interval.
+ * After serve-for the snapshot is no longer served at all.
+ *
+ * Stock reservations do not move the catalog version, so the snapshot holds
+ * no stock and the variant list, which carries stock, is always read from the
+ * database.
+ *
+ * Opt-in with app.catalog.snapshot.enabled (CATALOG_SNAPSHOT_ENABLED).
+ */
+@Service
+@Slf4j
+public class CatalogSnapshotService implements MeterBinder {
+
+    private final CatalogService catalogService;
+    private final TenantRepository tenantRepository;
+    private final boolean enabled;
+    private final Path file;
+    private final Duration serveFor;
+    private final Duration maxAge;
+
+    private final Set<Long> served = ConcurrentHashMap.newKeySet();
+    private final LongAdder reads = new LongAdder();
+    private volatile CatalogSnapshot snapshot;
+    private volatile Instant serveUntil = Instant.MIN;
+    private boolean reconciled;
+
+    public CatalogSnapshotService(CatalogService catalogService,
+            TenantRepository tenantRepository,
+            @Value("${app.catalog.snapshot.enabled:false}") boolean enabled,
+            @Value("${app.catalog.snapshot.file:./data/catalog.snapshot}") Path file,
+            @Value("${app.catalog.snapshot.serve-for:PT5M}") Duration serveFor,
+            @Value("${app.catalog.snapshot.max-age:PT1H}") Duration maxAge) {
+        this.catalogService = catalogService;
+        this.tenantRepository = tenantRepository;
+        this.enabled = enabled;
+        this.file = file;
+        this.serveFor = serveFor;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Map the snapshot left by the previous run, if any. Blocks older than
+     * max-age are kept for the next persist but not served.
+     */
+    @PostConstruct
+    void load() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            snapshot = CatalogSnapshot.open(file);
+        } catch (NoSuchFileException e) {
+            log.info("No catalog snapshot at {}; serving the catalog from the database", file);
+            return;
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable catalog snapshot {}: {}", file, e.getMessage());
+            return;
+        }
+
+        long oldest = Instant.now().minus(maxAge).toEpochMilli();
+        for (Long tenantId : snapshot.tenantIds()) {
+            if (snapshot.block(tenantId).writtenAtMillis() >= oldest) {
+                served.add(tenantId);
+            }
+        }
+        serveUntil = Instant.now().plus(serveFor);
+        log.info("Mapped catalog snapshot {} in {} ms: serving {} of {} tenants ({} products) until {}",
+                file, (System.nanoTime() - start) / 1_000_000, served.size(), snapshot.tenantIds().size(),
+                snapshot.productCount(), serveUntil);
+    }
+
+    /**
+     * @return The tenant's active products, or null if the tenant is not
+     *         served from the snapshot
+     */
+    public List<ProductView> products(Long tenantId) {
+        CatalogSnapshot current = servedSnapshot(tenantId);
+        return current == null ? null : current.products(tenantId);
+    }
+
+    /**
+     * @return The active product, or null if the tenant is not served from
+     *         the snapshot
+     * @throws ResponseStatusException 404 if the snapshot has no such active
+     *                                 product
+     */
+    public ProductView product(Long tenantId, Long productId) {
+        CatalogSnapshot current = servedSnapshot(tenantId);
+        if (current == null) {
+            return null;
+        }
+        // The snapshot holds inactive products too, for admins; they are not served
+        ProductView product = current.product(tenantId, productId);
+        if (product == null || !Boolean.TRUE.equals(product.active())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found");
+        }
+        return product;
+    }
+
+    /**
+     * @return Active products with their active variants, or null if the
+     *         tenant is not served from the snapshot
+     */
+    public CatalogView catalog(Long tenantId) {
+        CatalogSnapshot current = servedSnapshot(tenantId);
+        return current == null ? null : current.catalog(tenantId);
+    }
+
+    private CatalogSnapshot servedSnapshot(Long tenantId) {
+        if (served.isEmpty() || !served.contains(tenantId)) {
+            return null;
+        }
+        CatalogSnapshot current = snapshot;
+        if (current == null || current.block(tenantId) == null) {
+            return null;
+        }
+        reads.increment();
+        return current;
+    }
+
+    /**
+     * A committed change on this node makes the tenant's snapshot stale.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        served.remove(event.tenantId());
+    }
+
+    /**
+     * Compare the served tenants' snapshot versions with the database and
+     * stop serving those that changed or are no longer active. The first run
+     * starts with the scheduler, right after the context is up.
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.snapshot.reconcile-interval:PT10S}")
+    public void reconcile() {
+        if (served.isEmpty()) {
+            return;
+        }
+        if (Instant.now().isAfter(serveUntil)) {
+            log.info("Catalog snapshot serve window over; {} tenants back on the database", served.size());
+            served.clear();
+            return;
+        }
+
+        long start = System.nanoTime();
+        Map<Long, Long> versions = new HashMap<>();
+        for (TenantCatalogVersion tenant : tenantRepository.findActiveCatalogVersions()) {
+            versions.put(tenant.tenantId(), tenant.version());
+        }
+        CatalogSnapshot current = snapshot;
+        int before = served.size();
+        served.removeIf(tenantId -> {
+            Long version = versions.get(tenantId);
+            CatalogSnapshot.Block block = current.block(tenantId);
+            return version == null || block == null || version != block.version();
+        });
+
+        if (!reconciled) {
+            reconciled = true;
+            log.info("Catalog snapshot reconciled in {} ms, {} ms after JVM start: {} of {} tenants current",
+                    (System.nanoTime() - start) / 1_000_000, ManagementFactory.getRuntimeMXBean().getUptime(),
+                    served.size(), before);
+        } else if (served.size() < before) {
+            log.debug("Catalog snapshot reconcile dropped {} tenants", before - served.size());
+        }
+    }
+
+    /**
+     * Rewrite the snapshot file. Tenants whose catalog version is unchanged
+     * and whose block is younger than half of max-age are copied from the
+     * current file; the others are read from the database one at a time.
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.snapshot.persist-interval:PT5M}",
+            initialDelayString = "${app.catalog.snapshot.persist-interval:PT5M}")
+    public void persist() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        long refreshBefore = now - maxAge.toMillis() / 2;
+        CatalogSnapshot current = snapshot;
+
+        List<CatalogSnapshot.Block> blocks = new ArrayList<>();
+        int reloaded = 0;
+        try {
+            for (TenantCatalogVersion tenant : tenantRepository.findActiveCatalogVersions()) {
+                CatalogSnapshot.Block block = current == null ? null : current.block(tenant.tenantId());
+                if (block == null || block.version() != tenant.version() || block.writtenAtMillis() < refreshBefore) {
+                    block = catalogService.getSnapshotBlock(tenant.tenantId());
+                    reloaded++;
+                }
+                blocks.add(block);
+            }
+            long bytes = CatalogSnapshot.write(file, blocks);
+            snapshot = CatalogSnapshot.open(file);
+            log.info("Wrote catalog snapshot {} in {} ms: {} tenants, {} reloaded, {} bytes",
+                    file, (System.nanoTime() - start) / 1_000_000, blocks.size(), reloaded, bytes);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write catalog snapshot {}", file, e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("catalog.snapshot.tenants", served, Set::size)
+                .description("Tenants whose public catalog reads are served from the snapshot")
+                .register(registry);
+        FunctionCounter.builder("catalog.snapshot.reads", reads, LongAdder::sum)
+                .description("Catalog reads answered from the snapshot")
+                .register(registry);
+    }
+}
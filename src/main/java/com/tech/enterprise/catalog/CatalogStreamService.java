@@ -0,0 +1,346 @@
+package com.tech.enterprise.catalog;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fans committed catalog changes out to Server-Sent Events subscribers.
+ *
+ * Each subscriber is an SseEmitter on an async servlet request, so an idle
+ * connection holds no request thread. One dispatcher thread orders events,
+ * replays and registrations without extra locking, but never writes to a
+ * socket: it puts events on each subscriber's bounded queue, and a virtual
+ * thread per busy subscriber does the blocking send. A client too slow to keep
+ * up fills its queue and is disconnected; it resumes with Last-Event-ID like
+ * any other reconnect, and nobody else waits for it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogStreamService implements MeterBinder {
+
+    static final String EVENT_NAME = "catalog-change";
+    static final String RESET_EVENT_NAME = "catalog-reset";
+
+    private final ObjectMapper objectMapper;
+    private final CatalogChangePublisher catalogChangePublisher;
+
+    private final Map<Long, TenantStream> streams = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final LongAdder replays = new LongAdder();
+    private final LongAdder resets = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "catalog-stream-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${app.catalog.stream.timeout:PT30M}")
+    private Duration emitterTimeout;
+
+    @Value("${app.catalog.stream.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${app.catalog.stream.replay-buffer:256}")
+    private int replayBufferSize;
+
+    @Value("${app.catalog.stream.send-queue:64}")
+    private int sendQueueSize;
+
+    /**
+     * Open a stream for a tenant.
+     *
+     * @param lastEventId    The last catalog version the client saw, or null for
+     *                       a fresh connection. Missed events are replayed from
+     *                       an in-memory buffer; if they are no longer buffered
+     *                       the client gets a catalog-reset event and should
+     *                       refetch.
+     * @throws ResponseStatusException 503 if the node is at its subscriber limit
+     */
+    public SseEmitter subscribe(Long tenantId, Long lastEventId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many stream subscribers");
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeout.toMillis());
+        TenantStream stream = streams.computeIfAbsent(tenantId, id -> new TenantStream());
+        Subscriber subscriber = new Subscriber(emitter, sendQueueSize);
+
+        Runnable remove = () -> {
+            if (stream.subscribers.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+        };
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+
+        // Register before reading the version: anything committed after the read
+        // is either still to be dispatched or already in the replay buffer
+        stream.subscribers.add(subscriber);
+        long currentVersion = catalogChangePublisher.currentVersion(tenantId);
+        long from = lastEventId != null ? lastEventId : currentVersion;
+        dispatcher.execute(() -> {
+            // Buffered events are replayed first; events dispatched from now on
+            // were not in the buffer yet, so nothing is sent twice
+            replay(stream, subscriber, from, currentVersion, lastEventId != null);
+            subscriber.live = true;
+        });
+        return emitter;
+    }
+
+    /**
+     * Receive changes only once the writing transaction has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        dispatcher.execute(() -> dispatch(event));
+    }
+
+    /**
+     * Comment-only heartbeat so proxies keep idle connections open and dead
+     * clients are detected and dropped.
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.stream.heartbeat-interval:PT25S}")
+    public void heartbeat() {
+        dispatcher.execute(() -> {
+            for (TenantStream stream : streams.values()) {
+                for (Subscriber subscriber : stream.subscribers) {
+                    enqueue(subscriber, SseEmitter.event().comment("ping"));
+                }
+            }
+        });
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("catalog.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open catalog change streams")
+                .register(registry);
+        // Reconnects served from the replay buffer versus those told to refetch
+        FunctionCounter.builder("catalog.stream.resumes", replays, LongAdder::sum)
+                .tag("result", "replayed")
+                .register(registry);
+        FunctionCounter.builder("catalog.stream.resumes", resets, LongAdder::sum)
+                .tag("result", "reset")
+                .register(registry);
+        FunctionCounter.builder("catalog.stream.evictions", evictions, LongAdder::sum)
+                .description("Subscribers disconnected because their send queue was full")
+                .register(registry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        streams.values().forEach(stream -> stream.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    private void dispatch(CatalogChangeEvent event) {
+        TenantStream stream = streams.computeIfAbsent(event.tenantId(), id -> new TenantStream());
+        String payload = serialize(event);
+        stream.remember(event.version(), payload, replayBufferSize);
+
+        if (stream.subscribers.isEmpty()) {
+            return;
+        }
+        // Payload is serialized once and shared by every subscriber. Subscribers
+        // still waiting for their replay pick this event up from the buffer.
+        for (Subscriber subscriber : stream.subscribers) {
+            if (subscriber.live) {
+                enqueue(subscriber, changeEvent(event.version(), payload));
+            }
+        }
+    }
+
+    /**
+     * Queue the events after lastEventId, or a catalog-reset if some of them
+     * are no longer buffered.
+     */
+    private void replay(TenantStream stream, Subscriber subscriber, long lastEventId, long currentVersion,
+            boolean resume) {
+        List<BufferedEvent> missed = stream.since(lastEventId, currentVersion);
+        if (missed == null) {
+            resets.increment();
+            enqueue(subscriber, SseEmitter.event().name(RESET_EVENT_NAME).data("{}", MediaType.APPLICATION_JSON));
+            return;
+        }
+        if (resume) {
+            replays.increment();
+        }
+        for (BufferedEvent event : missed) {
+            if (!enqueue(subscriber, changeEvent(event.version(), event.payload()))) {
+                return;
+            }
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder changeEvent(long version, String payload) {
+        return SseEmitter.event()
+                .id(Long.toString(version))
+                .name(EVENT_NAME)
+                .data(payload, MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Queue an event for the subscriber and make sure a sender is draining its
+     * queue. A full queue means the client is not reading; it is disconnected
+     * rather than allowed to hold events back.
+     *
+     * @return false if the subscriber was evicted
+     */
+    private boolean enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (subscriber.closed) {
+            return false;
+        }
+        if (!subscriber.queue.offer(event)) {
+            evictions.increment();
+            subscriber.close(null);
+            return false;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+        return true;
+    }
+
+    /**
+     * Send queued events until the queue is empty. Runs on a virtual thread, so
+     * a client whose socket is full blocks only itself.
+     */
+    private void drain(Subscriber subscriber) {
+        do {
+            SseEmitter.SseEventBuilder event;
+            while ((event = subscriber.queue.poll()) != null) {
+                if (subscriber.closed) {
+                    subscriber.queue.clear();
+                    break;
+                }
+                try {
+                    subscriber.emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away; completion callback removes it from the stream
+                    subscriber.close(e);
+                }
+            }
+            subscriber.draining.set(false);
+            // An event queued between the last poll and the flag reset needs a sender
+        } while (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private String serialize(CatalogChangeEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize catalog event", e);
+        }
+    }
+
+    private record BufferedEvent(long version, String payload) {
+    }
+
+    /**
+     * One open stream with its pending events.
+     */
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        /** Set on the dispatcher thread once the replay is queued. */
+        private volatile boolean live;
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, int queueSize) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+        }
+
+        void close(Throwable error) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (error != null) {
+                emitter.completeWithError(error);
+            } else {
+                emitter.complete();
+            }
+        }
+    }
+
+    /**
+     * Subscribers and recent events of one tenant. The buffer is only touched
+     * from the dispatcher thread.
+     */
+    private static final class TenantStream {
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private final ArrayDeque<BufferedEvent> recent = new ArrayDeque<>();
+
+        void remember(long version, String payload, int capacity) {
+            if (recent.size() >= capacity) {
+                recent.removeFirst();
+            }
+            recent.addLast(new BufferedEvent(version, payload));
+        }
+
+        /**
+         * @return Events after lastEventId, or null if some of them are no longer
+         *         (or never were) in the buffer
+         */
+        List<BufferedEvent> since(long lastEventId, long currentVersion) {
+            if (lastEventId < currentVersion) {
+                BufferedEvent oldest = recent.peekFirst();
+                if (oldest == null || oldest.version() > lastEventId + 1) {
+                    return null;
+                }
+            }
+            List<BufferedEvent> result = new ArrayList<>();
+            for (BufferedEvent event : recent) {
+                if (event.version() > lastEventId) {
+                    result.add(event);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.tech.enterprise.controller;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.tech.enterprise.dto.AuditPage;
+import com.tech.enterprise.service.AdminAuthService;
+import com.tech.enterprise.service.AuditService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Admin-only audit trail of product and variant changes for a tenant.
+ */
+@RestController
+@RequestMapping("/api/{tenantSlug}/audit")
+@RequiredArgsConstructor
+public class AuditController {
+
+    private final AuditService auditService;
+    private final AdminAuthService adminAuthService;
+
+    /**
+     * Get audit entries, newest first. Filter to one entity with
+     * entityType (product or variant) and entityId.
+     * 
+     * GET /api/{tenantSlug}/audit?page=0&size=50&entityType=product&entityId=42
+     */
+    @GetMapping
+    public AuditPage getEntries(@PathVariable String tenantSlug,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) Long entityId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        Long tenantId = adminAuthService.validateAdminTenantAccess(tenantSlug);
+        return auditService.getEntries(tenantId, entityType, entityId, page, size);
+    }
+}
@@ -0,0 +1,39 @@
+package com.tech.enterprise.controller;
+
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.tech.enterprise.dto.CartQuote;
+import com.tech.enterprise.dto.CartQuoteRequest;
+import com.tech.enterprise.service.CartQuoteService;
+import com.tech.enterprise.tenant.TenantResolver;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Public cart pricing endpoints used by storefront checkout.
+ */
+@RestController
+@RequestMapping("/api/{tenantSlug}/cart")
+@RequiredArgsConstructor
+public class CartController {
+
+    private final CartQuoteService cartQuoteService;
+    private final TenantResolver tenantResolver;
+
+    /**
+     * Price a cart of variants.
+     * 
+     * POST /api/{tenantSlug}/cart/quote
+     * 
+     * Request body: { "lines": [ { "variantId": 1, "quantity": 2 }, ... ] }
+     */
+    @PostMapping("/quote")
+    public CartQuote quote(@PathVariable String tenantSlug, @RequestBody CartQuoteRequest request) {
+        Long tenantId = tenantResolver.resolveTenant(tenantSlug).getId();
+        return cartQuoteService.quote(request.getLines(), tenantId);
+    }
+}
@@ -0,0 +1,78 @@
+package com.tech.enterprise.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.tech.enterprise.catalog.CatalogSnapshotService;
+import com.tech.enterprise.catalog.CatalogStreamService;
+import com.tech.enterprise.dto.CatalogDelta;
+import com.tech.enterprise.dto.CatalogView;
+import com.tech.enterprise.model.Tenant;
+import com.tech.enterprise.service.CatalogService;
+import com.tech.enterprise.tenant.TenantResolver;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Public, tenant-wide catalog endpoints.
+ */
+@RestController
+@RequestMapping("/api/{tenantSlug}/catalog")
+@RequiredArgsConstructor
+public class CatalogController {
+
+    private final CatalogStreamService catalogStreamService;
+    private final CatalogService catalogService;
+    private final CatalogSnapshotService catalogSnapshots;
+    private final TenantResolver tenantResolver;
+
+    /**
+     * Active products with their active variants in one response. The version
+     * can be passed as lastEventId to the stream to follow later changes.
+     * Served from the catalog snapshot while the node warms up.
+     * 
+     * GET /api/{tenantSlug}/catalog (JSON, or CBOR for Accept: application/cbor)
+     */
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE })
+    public CatalogView getCatalog(@PathVariable String tenantSlug) {
+        Tenant tenant = tenantResolver.resolveTenant(tenantSlug);
+        CatalogView catalog = catalogSnapshots.catalog(tenant.getId());
+        return catalog != null ? catalog : catalogService.getCatalog(tenant.getId());
+    }
+
+    /**
+     * Products and variants added, changed or removed since the catalog
+     * version the client last saw (the version of its last catalog or delta).
+     * The response says full=true when the client must replace its copy
+     * instead.
+     * 
+     * GET /api/{tenantSlug}/catalog/changes?since=42
+     */
+    @GetMapping(path = "/changes", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE })
+    public CatalogDelta getChanges(@PathVariable String tenantSlug, @RequestParam long since) {
+        Tenant tenant = tenantResolver.resolveTenant(tenantSlug);
+        return catalogService.getChanges(tenant.getId(), since);
+    }
+
+    /**
+     * Server-Sent Events stream of catalog changes for the tenant.
+     * Reconnecting clients resume via the Last-Event-ID header (sent
+     * automatically by EventSource) or the lastEventId query parameter.
+     * 
+     * GET /api/{tenantSlug}/catalog/stream
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@PathVariable String tenantSlug,
+            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventIdHeader,
+            @RequestParam(name = "lastEventId", required = false) Long lastEventIdParam) {
+        Tenant tenant = tenantResolver.resolveTenant(tenantSlug);
+        Long lastEventId = lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam;
+        return catalogStreamService.subscribe(tenant.getId(), lastEventId);
+    }
+}
@@ -0,0 +1,25 @@
+package com.tech.enterprise.controller;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+/**
+ * CBOR (application/cbor) responses for clients that send it in Accept.
+ *
+ * The mapper is built from Boot's Jackson builder, so CBOR payloads carry the
+ * same fields as the JSON ones (non_null inclusion, ISO dates). Prices are
+ * written as CBOR decimal fractions instead of digit strings. Like JSON, the
+ * body is written straight from the objects to the response stream.
+ */
+@Configuration
+public class CborConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
@@ -1,26 +1,47 @@
 package com.tech.enterprise.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.tech.enterprise.catalog.CatalogSnapshotService;
+import com.tech.enterprise.dto.ProductLookup;
+import com.tech.enterprise.dto.ProductPatch;
+import com.tech.enterprise.dto.ProductView;
+import com.tech.enterprise.dto.StockAdjustmentRequest;
+import com.tech.enterprise.dto.VariantBatchRequest;
+import com.tech.enterprise.dto.VariantOperationResult;
+import com.tech.enterprise.dto.VariantView;
 import com.tech.enterprise.model.Product;
 import com.tech.enterprise.model.ProductVariant;
-import com.tech.enterprise.model.Tenant;
-import com.tech.enterprise.security.AdminUserDetails;
 import com.tech.enterprise.service.AdminAuthService;
+import com.tech.enterprise.service.ImageStorageService;
+import com.tech.enterprise.service.ImageStorageService.Rendition;
 import com.tech.enterprise.service.ProductService;
 import com.tech.enterprise.service.ProductVariantService;
 import com.tech.enterprise.tenant.TenantResolver;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -30,6 +51,15 @@ import lombok.extern.slf4j.Slf4j;
  * All endpoints are secured and require authentication.
  * Tenant is resolved from URL slug AND validated against authenticated admin's
  * tenant.
+ *
+ * Products and variants carry a version, returned as the ETag ("3" for version
+ * 3). Sending it back in If-Match makes PUT and PATCH fail with 412 if
+ * someone else changed the entity in the meantime. Without If-Match (or with
+ * "If-Match: *") they are last-writer-wins, for every field on PUT and for
+ * the fields sent on PATCH.
+ *
+ * The GET endpoints answer in CBOR instead of JSON for Accept:
+ * application/cbor (see CborConfig).
  */
 @RestController
 @RequestMapping("/api/{tenantSlug}/products")
@@ -41,6 +71,9 @@ public class ProductController {
     private final ProductVariantService variantService;
     private final AdminAuthService adminAuthService;
     private final TenantResolver tenantResolver;
+    private final ImageStorageService imageStorageService;
+    private final FileResponseWriter fileResponseWriter;
+    private final CatalogSnapshotService catalogSnapshots;
 
     /**
      * Resolve tenant from URL slug. Used for public endpoints.
@@ -51,53 +84,98 @@ public class ProductController {
 
     /**
      * Validate that the authenticated admin belongs to the tenant specified in URL.
-     * This enforces strict tenant isolation for admin actions.
-     * 
-     * @param tenantSlug The tenant slug from URL
-     * @return The validated tenant ID
-     * @throws ResponseStatusException 403 if tenant mismatch
      */
     private Long validateAdminTenantAccess(String tenantSlug) {
-        // Get current authenticated admin
-        AdminUserDetails currentAdmin = adminAuthService.getCurrentAdmin();
-        if (currentAdmin == null) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Not authenticated");
-        }
-
-        // Resolve tenant from URL
-        Tenant urlTenant = tenantResolver.resolveTenant(tenantSlug);
+        return adminAuthService.validateAdminTenantAccess(tenantSlug);
+    }
 
-        // Validate admin's tenant matches URL tenant
-        if (!currentAdmin.getTenantId().equals(urlTenant.getId())) {
-            log.error("Tenant mismatch! Admin tenant: {}, URL tenant ({}): {}",
-                    currentAdmin.getTenantId(), tenantSlug, urlTenant.getId());
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN,
-                    "Access denied: You can only access your own tenant's resources");
+    /**
+     * Version from an If-Match header, or null when absent or "*".
+     *
+     * @throws ResponseStatusException 412 if the header cannot match any version
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
         }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.valueOf(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // fall through
+            }
+        }
+        // Weak tags, lists and foreign values never match a strong version tag
+        throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not match");
+    }
 
-        return urlTenant.getId();
+    private static <T> ResponseEntity<T> withETag(Long version, T body) {
+        return ResponseEntity.ok().eTag(String.valueOf(version)).body(body);
     }
 
     /**
-     * Get all products for the tenant.
+     * Get the tenant's active products. Served from the catalog snapshot while
+     * the node warms up. Admins can ask for inactive products as well, which
+     * are always read from the database.
      * 
      * GET /api/{tenantSlug}/products
+     * GET /api/{tenantSlug}/products?includeInactive=true (admin)
      */
-    @GetMapping
-    public List<Product> getAll(@PathVariable String tenantSlug) {
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE })
+    public List<ProductView> getAll(@PathVariable String tenantSlug,
+            @RequestParam(defaultValue = "false") boolean includeInactive) {
+        if (includeInactive) {
+            return productService.getProductsByTenantId(validateAdminTenantAccess(tenantSlug), true);
+        }
         Long tenantId = resolveTenantId(tenantSlug);
-        return productService.getProductsByTenantId(tenantId);
+        List<ProductView> products = catalogSnapshots.products(tenantId);
+        return products != null ? products : productService.getProductsByTenantId(tenantId, false);
     }
 
     /**
-     * Get a single product by ID.
+     * Get several active products by ID, in request order, with found=false
+     * markers for ids that do not exist or are inactive. Admins can ask for
+     * inactive products and variants as well.
+     * 
+     * GET /api/{tenantSlug}/products/batch?ids=1,2,3&includeVariants=true
+     * GET /api/{tenantSlug}/products/batch?ids=1,2,3&includeInactive=true (admin)
+     */
+    @GetMapping(path = "/batch", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE })
+    public List<ProductLookup> getByIds(@PathVariable String tenantSlug,
+            @RequestParam List<Long> ids,
+            @RequestParam(defaultValue = "false") boolean includeVariants,
+            @RequestParam(defaultValue = "false") boolean includeInactive) {
+        Long tenantId = includeInactive ? validateAdminTenantAccess(tenantSlug) : resolveTenantId(tenantSlug);
+        return productService.lookupProducts(ids, includeVariants, includeInactive, tenantId);
+    }
+
+    /**
+     * Get a single active product by ID. Served from the catalog snapshot
+     * while the node warms up. Admins can read an inactive product, and its
+     * ETag for If-Match, from the database.
      * 
      * GET /api/{tenantSlug}/products/{id}
+     * GET /api/{tenantSlug}/products/{id}?includeInactive=true (admin)
      */
-    @GetMapping("/{id}")
-    public Product getById(@PathVariable String tenantSlug, @PathVariable Long id) {
-        Long tenantId = resolveTenantId(tenantSlug);
-        return productService.getProductById(id, tenantId);
+    @GetMapping(path = "/{id}", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE })
+    public ResponseEntity<ProductView> getById(@PathVariable String tenantSlug, @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean includeInactive) {
+        ProductView product;
+        if (includeInactive) {
+            product = ProductView.of(productService.getProductById(id, validateAdminTenantAccess(tenantSlug)));
+        } else {
+            Long tenantId = resolveTenantId(tenantSlug);
+            product = catalogSnapshots.product(tenantId, id);
+            if (product == null) {
+                product = ProductView.of(productService.getActiveProductById(id, tenantId));
+            }
+        }
+        // JSON and CBOR share the version ETag, so caches must also key on Accept
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(product.version()))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(product);
     }
 
     /**
@@ -112,20 +190,42 @@ public class ProductController {
     }
 
     /**
-     * Update an existing product.
+     * Replace an existing product's fields, optionally only if it is still at
+     * the version in If-Match.
      * 
      * PUT /api/{tenantSlug}/products/{id}
      */
     @PutMapping("/{id}")
-    public Product update(@PathVariable String tenantSlug,
+    public ResponseEntity<Product> update(@PathVariable String tenantSlug,
             @PathVariable Long id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody Product product) {
         Long tenantId = validateAdminTenantAccess(tenantSlug);
-        return productService.updateProduct(id, product, tenantId);
+        Product saved = productService.updateProduct(id, product, expectedVersion(ifMatch), tenantId);
+        return withETag(saved.getVersion(), saved);
+    }
+
+    /**
+     * Update only the supplied (non-null) fields, optionally only if the
+     * product is still at the version in If-Match.
+     * 
+     * PATCH /api/{tenantSlug}/products/{id}
+     * 
+     * Request body: { "price": 12.50 }
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Product> patch(@PathVariable String tenantSlug,
+            @PathVariable Long id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody ProductPatch patch) {
+        Long tenantId = validateAdminTenantAccess(tenantSlug);
+        Product saved = productService.patchProduct(id, patch, expectedVersion(ifMatch), tenantId);
+        return withETag(saved.getVersion(), saved);
     }
 
     /**
-     * Delete a product (soft delete by setting active=false).
+     * Delete a product and its variants (soft delete; the rows are archived
+     * later by CatalogArchiveService).
      * 
      * DELETE /api/{tenantSlug}/products/{id}
      */
@@ -135,18 +235,105 @@ public class ProductController {
         productService.deleteProduct(id, tenantId);
     }
 
+    // --- Image Endpoints ---
+
+    /**
+     * Upload a product image (JPEG or PNG, multipart field "file").
+     * Renditions are generated in the background.
+     * 
+     * POST /api/{tenantSlug}/products/{id}/image
+     */
+    @PostMapping(path = "/{id}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Product uploadImage(@PathVariable String tenantSlug,
+            @PathVariable Long id,
+            @RequestParam("file") MultipartFile file) throws IOException {
+        Long tenantId = validateAdminTenantAccess(tenantSlug);
+        // Fail fast before storing anything for a product that does not exist
+        productService.getProductById(id, tenantId);
+
+        String hash;
+        try (InputStream content = file.getInputStream()) {
+            hash = imageStorageService.store(content);
+        }
+        return productService.attachImage(id, hash, tenantId);
+    }
+
+    /**
+     * Serve the active product's current image. The URL is stable across
+     * uploads, so clients must revalidate with the ETag.
+     * 
+     * GET /api/{tenantSlug}/products/{id}/image?size=original|small|medium
+     */
+    @GetMapping("/{id}/image")
+    public void getImage(@PathVariable String tenantSlug,
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "original") String size,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Product product = productService.getActiveProductById(id, resolveTenantId(tenantSlug));
+        serveImage(product.getImageHash(), size, "no-cache", request, response);
+    }
+
+    /**
+     * Serve a specific image version of an active product by content hash.
+     * The content behind this URL never changes, so it is cacheable forever.
+     * 
+     * GET /api/{tenantSlug}/products/{id}/image/{hash}?size=original|small|medium
+     */
+    @GetMapping("/{id}/image/{hash}")
+    public void getImageVersion(@PathVariable String tenantSlug,
+            @PathVariable Long id,
+            @PathVariable String hash,
+            @RequestParam(defaultValue = "original") String size,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Product product = productService.getActiveProductById(id, resolveTenantId(tenantSlug));
+        // Only hashes attached to this tenant's product are served
+        if (!hash.equals(product.getImageHash())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Image not found");
+        }
+        serveImage(hash, size, "public, max-age=31536000, immutable", request, response);
+    }
+
+    private void serveImage(String hash, String size, String cacheControl,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Rendition rendition;
+        try {
+            rendition = Rendition.valueOf(size.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown image size: " + size);
+        }
+
+        Path file = imageStorageService.resolve(hash, rendition)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Image not found"));
+        // The original is served while a rendition is still being generated;
+        // that fallback must not be cached as the rendition
+        if (!file.getFileName().toString().equals(rendition.fileName())) {
+            cacheControl = "no-cache";
+        }
+        String etag = "\"" + hash + "-" + file.getFileName() + "\"";
+        fileResponseWriter.write(request, response, file, imageStorageService.contentType(file), etag, cacheControl);
+    }
+
     // --- Variant Endpoints ---
 
     /**
-     * Get all variants for a specific product.
+     * Get an active product's active variants with their live stock, always
+     * from the database (the catalog snapshot has no stock). Admins can ask
+     * for inactive products' and variants as well.
      * GET /api/{tenantSlug}/products/{productId}/variants
+     * GET /api/{tenantSlug}/products/{productId}/variants?includeInactive=true (admin)
      */
-    @GetMapping("/{productId}/variants")
-    public List<ProductVariant> getVariants(
+    @GetMapping(path = "/{productId}/variants",
+            produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE })
+    public List<VariantView> getVariants(
             @PathVariable String tenantSlug,
-            @PathVariable Long productId) {
-        Long tenantId = resolveTenantId(tenantSlug);
-        return variantService.getVariantsByProductId(productId, tenantId);
+            @PathVariable Long productId,
+            @RequestParam(defaultValue = "false") boolean includeInactive) {
+        if (includeInactive) {
+            return variantService.getVariantsByProductId(productId, validateAdminTenantAccess(tenantSlug), true);
+        }
+        return variantService.getVariantsByProductId(productId, resolveTenantId(tenantSlug), false);
     }
 
     /**
@@ -163,16 +350,52 @@ public class ProductController {
     }
 
     /**
-     * Update an existing variant.
+     * Apply a batch of create/update/delete operations to a product's variants
+     * in one transaction. Results are returned in request order.
+     * POST /api/{tenantSlug}/products/{productId}/variants/batch
+     */
+    @PostMapping("/{productId}/variants/batch")
+    public List<VariantOperationResult> batchVariants(
+            @PathVariable String tenantSlug,
+            @PathVariable Long productId,
+            @RequestBody VariantBatchRequest request) {
+        Long tenantId = validateAdminTenantAccess(tenantSlug);
+        return variantService.applyBatch(productId, request.getOperations(), tenantId);
+    }
+
+    /**
+     * Update an existing variant, optionally only if it is still at the
+     * version in If-Match.
      * PUT /api/{tenantSlug}/products/variants/{variantId}
      */
     @PutMapping("/variants/{variantId}")
-    public ProductVariant updateVariant(
+    public ResponseEntity<ProductVariant> updateVariant(
             @PathVariable String tenantSlug,
             @PathVariable Long variantId,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody ProductVariant variant) {
         Long tenantId = validateAdminTenantAccess(tenantSlug);
-        return variantService.updateVariant(variantId, variant, tenantId);
+        ProductVariant saved = variantService.updateVariant(variantId, variant, expectedVersion(ifMatch),
+                tenantId);
+        return withETag(saved.getVersion(), saved);
+    }
+
+    /**
+     * Atomically adjust a variant's stock.
+     * POST /api/{tenantSlug}/products/variants/{variantId}/stock
+     * 
+     * Request body: { "delta": 10 }
+     */
+    @PostMapping("/variants/{variantId}/stock")
+    public ProductVariant adjustStock(
+            @PathVariable String tenantSlug,
+            @PathVariable Long variantId,
+            @RequestBody StockAdjustmentRequest request) {
+        Long tenantId = validateAdminTenantAccess(tenantSlug);
+        if (request.getDelta() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "delta is required");
+        }
+        return variantService.adjustStock(variantId, request.getDelta(), tenantId);
     }
 
     /**
@@ -0,0 +1,98 @@
+package com.tech.enterprise.controller;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.tech.enterprise.dto.CartQuote;
+import com.tech.enterprise.dto.ReservationRequest;
+import com.tech.enterprise.model.StockReservation;
+import com.tech.enterprise.service.ReservationRateLimiter;
+import com.tech.enterprise.service.StockReservationService;
+import com.tech.enterprise.tenant.TenantResolver;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Public stock reservation endpoints used by storefront checkout.
+ * The reservation id returned by reserve is the handle for confirm/release.
+ */
+@RestController
+@RequestMapping("/api/{tenantSlug}/reservations")
+@RequiredArgsConstructor
+public class ReservationController {
+
+    private final StockReservationService reservationService;
+    private final TenantResolver tenantResolver;
+    private final ReservationRateLimiter rateLimiter;
+
+    /**
+     * Reserve stock for a variant. Limited per client address, see
+     * ReservationRateLimiter.
+     * 
+     * POST /api/{tenantSlug}/reservations
+     * 
+     * Request body: { "variantId": 1, "quantity": 2 }
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public StockReservation reserve(@PathVariable String tenantSlug,
+            @RequestBody ReservationRequest request, HttpServletRequest httpRequest) {
+        if (request.getVariantId() == null || request.getQuantity() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "variantId and quantity are required");
+        }
+        Long tenantId = tenantResolver.resolveTenant(tenantSlug).getId();
+        // Behind the proxy this is the client's address (server.forward-headers-strategy)
+        rateLimiter.acquire(tenantId, httpRequest.getRemoteAddr(), 1);
+        return reservationService.reserve(request.getVariantId(), request.getQuantity(), tenantId);
+    }
+
+    /**
+     * Reserve every line of a signed quote from POST /cart/quote, all or
+     * nothing. Each line counts against the client's rate limit.
+     * 
+     * POST /api/{tenantSlug}/reservations/quote
+     * 
+     * Request body: the quote as returned, signature included
+     */
+    @PostMapping("/quote")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<StockReservation> reserveQuote(@PathVariable String tenantSlug, @RequestBody CartQuote quote,
+            HttpServletRequest httpRequest) {
+        Long tenantId = tenantResolver.resolveTenant(tenantSlug).getId();
+        int lines = quote.getLines() == null ? 1 : Math.max(1, quote.getLines().size());
+        rateLimiter.acquire(tenantId, httpRequest.getRemoteAddr(), lines);
+        return reservationService.reserveQuote(quote, tenantId);
+    }
+
+    /**
+     * Confirm a held reservation.
+     * 
+     * POST /api/{tenantSlug}/reservations/{reservationId}/confirm
+     */
+    @PostMapping("/{reservationId}/confirm")
+    public StockReservation confirm(@PathVariable String tenantSlug, @PathVariable UUID reservationId) {
+        Long tenantId = tenantResolver.resolveTenant(tenantSlug).getId();
+        return reservationService.confirm(reservationId, tenantId);
+    }
+
+    /**
+     * Release a held reservation and return its stock.
+     * 
+     * POST /api/{tenantSlug}/reservations/{reservationId}/release
+     */
+    @PostMapping("/{reservationId}/release")
+    public StockReservation release(@PathVariable String tenantSlug, @PathVariable UUID reservationId) {
+        Long tenantId = tenantResolver.resolveTenant(tenantSlug).getId();
+        return reservationService.release(reservationId, tenantId);
+    }
+}
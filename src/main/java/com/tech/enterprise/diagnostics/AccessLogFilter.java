@@ -0,0 +1,259 @@
+package com.tech.enterprise.diagnostics;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.tech.enterprise.model.Tenant;
+import com.tech.enterprise.tenant.TenantResolver;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Writes one JSON line per request to the "access-log" logger: method, route
+ * template, tenant, status, latency, response bytes and SQL statement count.
+ *
+ * The logger is routed to its own non-blocking AsyncAppender in
+ * logback-spring.xml, so the request thread only builds the line and enqueues
+ * it; when the buffer is full the line is dropped rather than stalling the
+ * request. Successful GETs are the bulk of the traffic and are sampled at
+ * app.access-log.sample-rate (the rate is included in each line so counts can
+ * be scaled back up); errors, writes and requests slower than
+ * app.access-log.slow-threshold are always logged.
+ *
+ * Runs inside QueryBudgetFilter so the per-thread QueryCounter covers the
+ * request.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    static final String LOGGER_NAME = "access-log";
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger(LOGGER_NAME);
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+
+    public AccessLogFilter(
+            @Value("${app.access-log.enabled:true}") boolean enabled,
+            @Value("${app.access-log.sample-rate:0.1}") double sampleRate,
+            @Value("${app.access-log.slow-threshold:PT1S}") Duration slowThreshold) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !ACCESS_LOG.isInfoEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        long started = System.nanoTime();
+        CountingResponseWrapper counting = new CountingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, counting);
+        } finally {
+            // Streaming responses return here once the async handler is set up
+            if (!request.isAsyncStarted()) {
+                long elapsedNanos = System.nanoTime() - started;
+                int status = counting.getStatus();
+                double rate = sampleRateFor(request.getMethod(), status, elapsedNanos);
+                if (rate >= 1.0 || ThreadLocalRandom.current().nextDouble() < rate) {
+                    ACCESS_LOG.info(format(request, status, elapsedNanos, counting.bytesWritten(), rate));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Probability of logging this request
+     */
+    double sampleRateFor(String method, int status, long elapsedNanos) {
+        if ("GET".equals(method) && status < 400 && elapsedNanos < slowThresholdNanos) {
+            return sampleRate;
+        }
+        return 1.0;
+    }
+
+    private static String format(HttpServletRequest request, int status, long elapsedNanos, long bytes,
+            double rate) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String tenant = request.getAttribute(TenantResolver.TENANT_ATTRIBUTE) instanceof Tenant t
+                ? t.getSlug()
+                : null;
+
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"ts\":\"").append(Instant.now()).append('"');
+        json.append(",\"method\":");
+        appendString(json, request.getMethod());
+        json.append(",\"route\":");
+        appendString(json, pattern instanceof String route ? route : null);
+        json.append(",\"tenant\":");
+        appendString(json, tenant);
+        json.append(",\"status\":").append(status);
+        json.append(",\"latencyMs\":").append(elapsedNanos / 1_000L / 1000.0);
+        json.append(",\"bytes\":").append(bytes);
+        json.append(",\"sqlCount\":").append(QueryCounter.count());
+        json.append(",\"sqlMs\":").append(QueryCounter.elapsedNanos() / 1_000L / 1000.0);
+        json.append(",\"sampleRate\":").append(rate);
+        json.append('}');
+        return json.toString();
+    }
+
+    /**
+     * Append a JSON string literal, or null.
+     */
+    static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+
+    /**
+     * Counts body bytes written through the response. Writer output is counted
+     * in characters, and bodies the container sends itself (sendfile, error
+     * pages) fall back to the Content-Length header.
+     */
+    private static final class CountingResponseWrapper extends HttpServletResponseWrapper {
+
+        private long count;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        CountingResponseWrapper(HttpServletResponse response) {
+            super(response);
+        }
+
+        long bytesWritten() {
+            if (count > 0) {
+                return count;
+            }
+            String contentLength = getHeader(HttpHeaders.CONTENT_LENGTH);
+            if (contentLength != null) {
+                try {
+                    return Long.parseLong(contentLength);
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CountingOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(super.getWriter()) {
+                    @Override
+                    public void write(int c) {
+                        count++;
+                        super.write(c);
+                    }
+
+                    @Override
+                    public void write(char[] buf, int off, int len) {
+                        count += len;
+                        super.write(buf, off, len);
+                    }
+
+                    @Override
+                    public void write(String s, int off, int len) {
+                        count += len;
+                        super.write(s, off, len);
+                    }
+                };
+            }
+            return writer;
+        }
+
+        private final class CountingOutputStream extends ServletOutputStream {
+
+            private final ServletOutputStream delegate;
+
+            CountingOutputStream(ServletOutputStream delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                delegate.write(b);
+                count++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                delegate.write(b, off, len);
+                count += len;
+            }
+
+            @Override
+            public void flush() throws IOException {
+                delegate.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                delegate.close();
+            }
+
+            @Override
+            public boolean isReady() {
+                return delegate.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                delegate.setWriteListener(writeListener);
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.tech.enterprise.diagnostics;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Counts the JDBC statements and JDBC time of every request and logs a
+ * warning when an endpoint runs more statements than its budget, which is how
+ * N+1 regressions show up.
+ *
+ * Budgets default to app.diagnostics.query-budget.default and can be set per
+ * route template with app.diagnostics.query-budget.endpoints, e.g.
+ * "GET /api/{tenantSlug}/products=1, GET /api/{tenantSlug}/products/{id}=1".
+ *
+ * With app.diagnostics.query-headers.enabled=true the counts are also
+ * returned as X-Query-Count and X-Query-Time-Ms. That buffers the response
+ * body so the headers can still be set, so it is meant for debugging only and
+ * skips streaming and image responses.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@Slf4j
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    static final String QUERY_TIME_HEADER = "X-Query-Time-Ms";
+
+    private final int defaultBudget;
+    private final Map<String, Integer> endpointBudgets;
+    private final boolean headersEnabled;
+
+    public QueryBudgetFilter(
+            @Value("${app.diagnostics.query-budget.default:10}") int defaultBudget,
+            @Value("${app.diagnostics.query-budget.endpoints:}") String endpointBudgets,
+            @Value("${app.diagnostics.query-headers.enabled:false}") boolean headersEnabled) {
+        this.defaultBudget = defaultBudget;
+        this.endpointBudgets = parseBudgets(endpointBudgets);
+        this.headersEnabled = headersEnabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        QueryCounter.reset();
+
+        if (!headersEnabled || isStreamed(request)) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                checkBudget(request);
+            }
+            return;
+        }
+
+        ContentCachingResponseWrapper buffered = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, buffered);
+        } finally {
+            if (!request.isAsyncStarted()) {
+                buffered.setHeader(QUERY_COUNT_HEADER, Integer.toString(QueryCounter.count()));
+                buffered.setHeader(QUERY_TIME_HEADER, formatMillis(QueryCounter.elapsedNanos()));
+            }
+            checkBudget(request);
+            buffered.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * Budget for a route template such as "GET /api/{tenantSlug}/products".
+     */
+    int budgetFor(String route) {
+        return endpointBudgets.getOrDefault(route, defaultBudget);
+    }
+
+    private void checkBudget(HttpServletRequest request) {
+        int count = QueryCounter.count();
+        if (count <= defaultBudget && endpointBudgets.isEmpty()) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return;
+        }
+        String route = request.getMethod() + " " + pattern;
+        int budget = budgetFor(route);
+        if (count > budget) {
+            log.warn("Query budget exceeded: {} ran {} statements in {} ms of JDBC time (budget {})",
+                    route, count, formatMillis(QueryCounter.elapsedNanos()), budget);
+        }
+    }
+
+    private static boolean isStreamed(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return uri.endsWith("/catalog/stream") || uri.contains("/image");
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format("%.2f", nanos / 1_000_000.0);
+    }
+
+    private static Map<String, Integer> parseBudgets(String spec) {
+        Map<String, Integer> budgets = new HashMap<>();
+        for (String entry : spec.split(",")) {
+            int separator = entry.lastIndexOf('=');
+            if (separator > 0) {
+                budgets.put(entry.substring(0, separator).trim(),
+                        Integer.parseInt(entry.substring(separator + 1).trim()));
+            }
+        }
+        return budgets;
+    }
+}
@@ -0,0 +1,50 @@
+package com.tech.enterprise.diagnostics;
+
+/**
+ * Per-thread count of JDBC statement executions and the time spent in them.
+ * Fed by the datasource proxy, reset at the start of every request by
+ * QueryBudgetFilter and read by the diagnostics filters and tests.
+ *
+ * Counts cover every statement on the thread (JPA and JdbcTemplate alike); a
+ * JDBC batch counts as one execution.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<long[]> STATE = ThreadLocal.withInitial(() -> new long[3]);
+
+    private static final int COUNT = 0;
+    private static final int ELAPSED = 1;
+    private static final int STARTED = 2;
+
+    private QueryCounter() {
+    }
+
+    public static void reset() {
+        long[] state = STATE.get();
+        state[COUNT] = 0;
+        state[ELAPSED] = 0;
+    }
+
+    public static int count() {
+        return (int) STATE.get()[COUNT];
+    }
+
+    public static long elapsedNanos() {
+        return STATE.get()[ELAPSED];
+    }
+
+    static void beforeExecution() {
+        STATE.get()[STARTED] = System.nanoTime();
+    }
+
+    /**
+     * @return Duration of the execution that just finished
+     */
+    static long afterExecution() {
+        long[] state = STATE.get();
+        long elapsed = System.nanoTime() - state[STARTED];
+        state[COUNT]++;
+        state[ELAPSED] += elapsed;
+        return elapsed;
+    }
+}
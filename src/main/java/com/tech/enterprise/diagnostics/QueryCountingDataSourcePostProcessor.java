@@ -0,0 +1,69 @@
+package com.tech.enterprise.diagnostics;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Wraps the application DataSource in a datasource-proxy that feeds
+ * QueryCounter and SlowQueryLog. The pool stays reachable through
+ * DataSource#unwrap, which is how the Hikari metrics binder finds it.
+ */
+@Component
+public class QueryCountingDataSourcePostProcessor implements BeanPostProcessor {
+
+    /**
+     * Looked up on first use; resolving it while post-processors are being
+     * created would initialize it (and the meter registry) too early.
+     */
+    private final ObjectProvider<SlowQueryLog> slowQueryLogProvider;
+    private volatile SlowQueryLog slowQueryLog;
+
+    public QueryCountingDataSourcePostProcessor(ObjectProvider<SlowQueryLog> slowQueryLogProvider) {
+        this.slowQueryLogProvider = slowQueryLogProvider;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            return ProxyDataSourceBuilder.create(beanName, dataSource)
+                    .listener(new QueryExecutionListener() {
+
+                        @Override
+                        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                            QueryCounter.beforeExecution();
+                        }
+
+                        @Override
+                        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                            long elapsedNanos = QueryCounter.afterExecution();
+                            SlowQueryLog log = slowQueryLog();
+                            if (log != null) {
+                                log.record(execInfo, queryInfoList, elapsedNanos);
+                            }
+                        }
+                    })
+                    .build();
+        }
+        return bean;
+    }
+
+    private SlowQueryLog slowQueryLog() {
+        SlowQueryLog log = slowQueryLog;
+        if (log == null) {
+            log = slowQueryLogProvider.getIfAvailable();
+            slowQueryLog = log;
+        }
+        return log;
+    }
+}
@@ -0,0 +1,28 @@
+package com.tech.enterprise.diagnostics;
+
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Exposes per-route statement counts. Only present when query stats are enabled.
+ */
+@RestController
+@ConditionalOnProperty(name = "app.diagnostics.query-stats.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class QueryStatsController {
+
+    private final QueryStatsFilter queryStatsFilter;
+
+    /**
+     * GET /internal/query-stats
+     */
+    @GetMapping("/internal/query-stats")
+    public Map<String, Map<String, Long>> getQueryStats() {
+        return queryStatsFilter.snapshot();
+    }
+}
@@ -0,0 +1,63 @@
+package com.tech.enterprise.diagnostics;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Aggregates request and SQL statement counts per route template
+ * (e.g. "GET /api/{tenantSlug}/products") so load tests can report queries
+ * per request. Enabled with app.diagnostics.query-stats.enabled=true.
+ *
+ * Runs inside QueryBudgetFilter, which resets the per-thread counter.
+ */
+@Component
+@ConditionalOnProperty(name = "app.diagnostics.query-stats.enabled", havingValue = "true")
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    private final Map<String, RouteStats> stats = new ConcurrentHashMap<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                RouteStats route = stats.computeIfAbsent(request.getMethod() + " " + pattern,
+                        key -> new RouteStats());
+                route.requests.increment();
+                route.statements.add(QueryCounter.count());
+            }
+        }
+    }
+
+    /**
+     * @return Route template to {requests, statements}, sorted by route
+     */
+    public Map<String, Map<String, Long>> snapshot() {
+        Map<String, Map<String, Long>> result = new TreeMap<>();
+        stats.forEach((route, counts) -> result.put(route, Map.of(
+                "requests", counts.requests.sum(),
+                "statements", counts.statements.sum())));
+        return result;
+    }
+
+    private static final class RouteStats {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+    }
+}
@@ -0,0 +1,153 @@
+package com.tech.enterprise.diagnostics;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.tech.enterprise.model.Tenant;
+import com.tech.enterprise.tenant.TenantResolver;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records request latency as the http.tenant.requests histogram, tagged by
+ * method, route template, tenant slug and outcome.
+ *
+ * Meters are registered the first time an endpoint/tenant pair is seen and
+ * looked up from nested maps afterwards, so the per-request cost is two map
+ * reads and a timer update with no tag allocation. Only the first
+ * app.metrics.max-tenants tenants get their own series; the rest share the
+ * tenant tag "other", and requests that never resolved a tenant use "none".
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    static final String METRIC_NAME = "http.tenant.requests";
+    static final String OTHER_TENANT = "other";
+    static final String NO_TENANT = "none";
+    private static final String UNMATCHED = "UNMATCHED";
+
+    /**
+     * Fixed buckets keep the series count per timer small (a full percentile
+     * histogram is ~70 buckets per endpoint and tenant).
+     */
+    private static final Duration[] BUCKETS = {
+            Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(25), Duration.ofMillis(50),
+            Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1),
+            Duration.ofMillis(2500), Duration.ofSeconds(5) };
+
+    private static final String[] OUTCOMES = { "SUCCESS", "CLIENT_ERROR", "SERVER_ERROR" };
+
+    private final MeterRegistry meterRegistry;
+    private final int maxTenants;
+
+    /**
+     * Route template to HTTP method to endpoint meters.
+     */
+    private final Map<String, Map<String, EndpointMeters>> endpoints = new ConcurrentHashMap<>();
+    private final Set<String> trackedTenants = ConcurrentHashMap.newKeySet();
+
+    public RequestMetricsFilter(MeterRegistry meterRegistry, @Value("${app.metrics.max-tenants:100}") int maxTenants) {
+        this.meterRegistry = meterRegistry;
+        this.maxTenants = maxTenants;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        long started = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // Streaming responses only return here once the async handler is
+            // set up, which is not a meaningful latency
+            if (!request.isAsyncStarted()) {
+                record(request, response.getStatus(), System.nanoTime() - started);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, int status, long elapsedNanos) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern instanceof String route ? route : UNMATCHED;
+
+        Map<String, EndpointMeters> byMethod = endpoints.get(uri);
+        if (byMethod == null) {
+            byMethod = endpoints.computeIfAbsent(uri, key -> new ConcurrentHashMap<>());
+        }
+        EndpointMeters endpoint = byMethod.get(request.getMethod());
+        if (endpoint == null) {
+            endpoint = byMethod.computeIfAbsent(request.getMethod(), method -> new EndpointMeters(method, uri));
+        }
+
+        Timer[] timers = endpoint.forTenant(tenantTag(request));
+        timers[status >= 500 ? 2 : status >= 400 ? 1 : 0].record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private String tenantTag(HttpServletRequest request) {
+        if (!(request.getAttribute(TenantResolver.TENANT_ATTRIBUTE) instanceof Tenant tenant)) {
+            return NO_TENANT;
+        }
+        String slug = tenant.getSlug();
+        if (trackedTenants.contains(slug)) {
+            return slug;
+        }
+        synchronized (trackedTenants) {
+            if (trackedTenants.size() < maxTenants) {
+                trackedTenants.add(slug);
+                return slug;
+            }
+        }
+        return OTHER_TENANT;
+    }
+
+    /**
+     * Timers of one route and method, per tenant and then per outcome.
+     */
+    private final class EndpointMeters {
+        private final String method;
+        private final String uri;
+        private final Map<String, Timer[]> byTenant = new ConcurrentHashMap<>();
+
+        EndpointMeters(String method, String uri) {
+            this.method = method;
+            this.uri = uri;
+        }
+
+        Timer[] forTenant(String tenant) {
+            Timer[] timers = byTenant.get(tenant);
+            if (timers == null) {
+                timers = byTenant.computeIfAbsent(tenant, this::register);
+            }
+            return timers;
+        }
+
+        private Timer[] register(String tenant) {
+            Timer[] timers = new Timer[OUTCOMES.length];
+            for (int i = 0; i < OUTCOMES.length; i++) {
+                timers[i] = Timer.builder(METRIC_NAME)
+                        .description("HTTP request latency by endpoint and tenant")
+                        .tags("method", method, "uri", uri, "tenant", tenant, "outcome", OUTCOMES[i])
+                        .serviceLevelObjectives(BUCKETS)
+                        .register(meterRegistry);
+            }
+            return timers;
+        }
+    }
+}
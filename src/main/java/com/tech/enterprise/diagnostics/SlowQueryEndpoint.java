@@ -0,0 +1,42 @@
+package com.tech.enterprise.diagnostics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * GET /actuator/slowqueries - recent slow or timed-out statements, latency per
+ * query shape and lock/statement timeout counts.
+ * DELETE /actuator/slowqueries - clear the slow statement buffer.
+ *
+ * Entries span all tenants, so SecurityConfig only serves this endpoint on the
+ * separate management port.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+@RequiredArgsConstructor
+public class SlowQueryEndpoint {
+
+    private final SlowQueryLog slowQueryLog;
+
+    @ReadOperation
+    public Map<String, Object> slowQueries() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("thresholdMs", slowQueryLog.threshold().toMillis());
+        result.put("errors", slowQueryLog.errorCounts());
+        result.put("recent", slowQueryLog.recent());
+        result.put("shapes", slowQueryLog.shapeStats());
+        return result;
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowQueryLog.clear();
+    }
+}
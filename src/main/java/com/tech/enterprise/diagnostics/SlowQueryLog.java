@@ -0,0 +1,300 @@
+package com.tech.enterprise.diagnostics;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.tech.enterprise.model.Tenant;
+import com.tech.enterprise.tenant.TenantResolver;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+
+/**
+ * Keeps the most recent slow or failed JDBC statements in a fixed-size ring
+ * buffer and a latency timer per query shape (SQL with literals and IN-list
+ * lengths normalized away). Read through the slowqueries actuator endpoint.
+ *
+ * Recording a fast statement is a map lookup and a timer update; only
+ * statements over app.diagnostics.slow-query.threshold (or failing with a lock
+ * or statement timeout) pay for the stack walk and tenant lookup.
+ */
+@Component
+@Slf4j
+public class SlowQueryLog {
+
+    /**
+     * lock_not_available (lock_timeout / NOWAIT) and query_canceled (statement timeout)
+     */
+    static final String LOCK_NOT_AVAILABLE = "55P03";
+    static final String QUERY_CANCELED = "57014";
+
+    private static final String OTHER_SHAPE = "other";
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    private static final String APP_PACKAGE = "com.tech.enterprise.";
+    private static final String DIAGNOSTICS_PACKAGE = "com.tech.enterprise.diagnostics.";
+
+    private final MeterRegistry meterRegistry;
+    private final long thresholdNanos;
+    private final int maxShapes;
+
+    private final AtomicReferenceArray<SlowQuery> ring;
+    private final AtomicLong ringPosition = new AtomicLong();
+
+    /**
+     * Raw SQL to shape, so normalization runs once per distinct statement text.
+     */
+    private final Map<String, QueryShape> shapesBySql = new ConcurrentHashMap<>();
+    private final Map<String, QueryShape> shapes = new ConcurrentHashMap<>();
+
+    private final Counter lockTimeouts;
+    private final Counter statementTimeouts;
+
+    public SlowQueryLog(MeterRegistry meterRegistry,
+            @Value("${app.diagnostics.slow-query.threshold:PT0.2S}") Duration threshold,
+            @Value("${app.diagnostics.slow-query.capacity:100}") int capacity,
+            @Value("${app.diagnostics.slow-query.max-shapes:200}") int maxShapes) {
+        this.meterRegistry = meterRegistry;
+        this.thresholdNanos = threshold.toNanos();
+        this.maxShapes = maxShapes;
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.lockTimeouts = errorCounter(LOCK_NOT_AVAILABLE, "lock_not_available");
+        this.statementTimeouts = errorCounter(QUERY_CANCELED, "query_canceled");
+    }
+
+    /**
+     * Called by the datasource proxy after every statement execution.
+     */
+    void record(ExecutionInfo execution, List<QueryInfo> queries, long elapsedNanos) {
+        String sql = queries.isEmpty() ? "" : queries.get(0).getQuery();
+        QueryShape shape = shapeOf(sql);
+        shape.timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        String sqlState = sqlState(execution.getThrowable());
+        if (LOCK_NOT_AVAILABLE.equals(sqlState)) {
+            lockTimeouts.increment();
+        } else if (QUERY_CANCELED.equals(sqlState)) {
+            statementTimeouts.increment();
+        }
+
+        if (elapsedNanos >= thresholdNanos || sqlState != null) {
+            SlowQuery slow = new SlowQuery(Instant.now(), elapsedNanos / 1_000_000.0, shape.id,
+                    shape.sql, bindCount(queries), currentTenantId(), caller(), sqlState);
+            ring.set((int) (ringPosition.getAndIncrement() % ring.length()), slow);
+            log.warn("Slow statement: {} ms, shape {}, tenant {}, caller {}, sqlState {}",
+                    String.format("%.1f", slow.durationMs()), shape.id, slow.tenantId(), slow.caller(), sqlState);
+        }
+    }
+
+    /**
+     * @return Buffered slow statements, newest first
+     */
+    public List<SlowQuery> recent() {
+        List<SlowQuery> result = new ArrayList<>(ring.length());
+        long end = ringPosition.get();
+        for (long i = end - 1; i >= 0 && i >= end - ring.length(); i--) {
+            SlowQuery entry = ring.get((int) (i % ring.length()));
+            if (entry != null) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return Latency summary per query shape, by total time spent descending
+     */
+    public List<ShapeStats> shapeStats() {
+        List<ShapeStats> result = new ArrayList<>(shapes.size());
+        for (QueryShape shape : shapes.values()) {
+            HistogramSnapshot snapshot = shape.timer.takeSnapshot();
+            if (snapshot.count() == 0) {
+                continue;
+            }
+            double p50 = 0;
+            double p99 = 0;
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                if (percentile.percentile() == 0.5) {
+                    p50 = percentile.value(TimeUnit.MILLISECONDS);
+                } else if (percentile.percentile() == 0.99) {
+                    p99 = percentile.value(TimeUnit.MILLISECONDS);
+                }
+            }
+            result.add(new ShapeStats(shape.id, shape.sql, snapshot.count(),
+                    snapshot.total(TimeUnit.MILLISECONDS), snapshot.mean(TimeUnit.MILLISECONDS), p50, p99,
+                    snapshot.max(TimeUnit.MILLISECONDS)));
+        }
+        result.sort(Comparator.comparingDouble(ShapeStats::totalMs).reversed());
+        return result;
+    }
+
+    public Map<String, Double> errorCounts() {
+        return Map.of(LOCK_NOT_AVAILABLE, lockTimeouts.count(), QUERY_CANCELED, statementTimeouts.count());
+    }
+
+    public Duration threshold() {
+        return Duration.ofNanos(thresholdNanos);
+    }
+
+    public void clear() {
+        for (int i = 0; i < ring.length(); i++) {
+            ring.set(i, null);
+        }
+    }
+
+    private QueryShape shapeOf(String sql) {
+        QueryShape shape = shapesBySql.get(sql);
+        if (shape != null) {
+            return shape;
+        }
+        String normalized = normalize(sql);
+        shape = shapes.get(normalized);
+        if (shape == null) {
+            String key = shapes.size() < maxShapes ? normalized : OTHER_SHAPE;
+            shape = shapes.computeIfAbsent(key, this::registerShape);
+        }
+        // Also capped; statement texts beyond the cap are normalized on every call
+        if (shapesBySql.size() < maxShapes * 4) {
+            shapesBySql.put(sql, shape);
+        }
+        return shape;
+    }
+
+    private QueryShape registerShape(String normalized) {
+        String id = OTHER_SHAPE.equals(normalized) ? OTHER_SHAPE
+                : String.format("%08x", normalized.hashCode());
+        Timer timer = Timer.builder("db.query")
+                .description("JDBC statement latency by normalized query shape")
+                .tag("shape", id)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        return new QueryShape(id, normalized, timer);
+    }
+
+    private Counter errorCounter(String sqlState, String condition) {
+        return Counter.builder("db.query.errors")
+                .description("Statements failed by lock or statement timeouts")
+                .tag("sqlstate", sqlState)
+                .tag("condition", condition)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Collapse whitespace, replace string and numeric literals with ? and
+     * IN lists of any length with a single (?...).
+     */
+    static String normalize(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        int length = sql.length();
+        for (int i = 0; i < length; i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                // Skip to the closing quote; '' is an escaped quote inside the literal
+                int end = i + 1;
+                while (end < length) {
+                    if (sql.charAt(end) == '\'') {
+                        if (end + 1 < length && sql.charAt(end + 1) == '\'') {
+                            end += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    end++;
+                }
+                out.append('?');
+                i = end;
+            } else if (Character.isDigit(c) && (i == 0 || !isWordChar(sql.charAt(i - 1)))) {
+                while (i + 1 < length && (Character.isDigit(sql.charAt(i + 1)) || sql.charAt(i + 1) == '.')) {
+                    i++;
+                }
+                out.append('?');
+            } else if (Character.isWhitespace(c)) {
+                if (out.length() > 0 && out.charAt(out.length() - 1) != ' ') {
+                    out.append(' ');
+                }
+            } else {
+                out.append(c);
+            }
+        }
+        return IN_LIST.matcher(out.toString().trim()).replaceAll("(?...)");
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static int bindCount(List<QueryInfo> queries) {
+        int count = 0;
+        for (QueryInfo query : queries) {
+            for (var parameters : query.getParametersList()) {
+                count += parameters.size();
+            }
+        }
+        return count;
+    }
+
+    private static String sqlState(Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sqlException && sqlException.getSQLState() != null) {
+                return sqlException.getSQLState();
+            }
+        }
+        return null;
+    }
+
+    private static Long currentTenantId() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null && attributes.getAttribute(TenantResolver.TENANT_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST) instanceof Tenant tenant) {
+            return tenant.getId();
+        }
+        return null;
+    }
+
+    /**
+     * @return The innermost application method (outside diagnostics) on the stack,
+     *         i.e. the service or controller method that issued the statement
+     */
+    private static String caller() {
+        Optional<StackWalker.StackFrame> frame = STACK_WALKER.walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith(APP_PACKAGE)
+                        && !f.getClassName().startsWith(DIAGNOSTICS_PACKAGE)
+                        && !f.getClassName().contains("$$"))
+                .findFirst());
+        return frame.map(f -> f.getClassName().substring(APP_PACKAGE.length()) + "." + f.getMethodName()
+                + ":" + f.getLineNumber()).orElse(null);
+    }
+
+    private record QueryShape(String id, String sql, Timer timer) {
+    }
+
+    public record SlowQuery(Instant timestamp, double durationMs, String shape, String sql, int bindCount,
+            Long tenantId, String caller, String sqlState) {
+    }
+
+    public record ShapeStats(String shape, String sql, long count, double totalMs, double meanMs, double p50Ms,
+            double p99Ms, double maxMs) {
+    }
+}
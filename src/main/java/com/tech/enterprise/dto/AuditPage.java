@@ -0,0 +1,25 @@
+package com.tech.enterprise.dto;
+
+import java.util.List;
+
+import com.tech.enterprise.model.AuditLog;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One page of audit entries, newest first. hasNext replaces a total count so
+ * paging never needs a COUNT over the tenant's whole history.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditPage {
+    private List<AuditLog> entries;
+    private Integer page;
+    private Integer size;
+    private Boolean hasNext;
+}
@@ -0,0 +1,16 @@
+package com.tech.enterprise.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One (variantId, quantity) pair in a cart.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartLine {
+    private Long variantId;
+    private Integer quantity;
+}
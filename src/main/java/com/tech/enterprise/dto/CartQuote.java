@@ -0,0 +1,29 @@
+package com.tech.enterprise.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Signed price quote for a cart.
+ * The signature is an HMAC-SHA256 over the tenant, timestamps, lines and total,
+ * so POST /api/{tenantSlug}/reservations/quote can check the quote was
+ * issued by this backend unchanged before holding its stock.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CartQuote {
+    private Long tenantId;
+    private List<CartQuoteLine> lines;
+    private BigDecimal total;
+    private Instant issuedAt;
+    private Instant expiresAt;
+    private String signature;
+}
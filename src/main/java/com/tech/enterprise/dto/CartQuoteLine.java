@@ -0,0 +1,25 @@
+package com.tech.enterprise.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A priced cart line.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CartQuoteLine {
+    private Long variantId;
+    private Long productId;
+    private BigDecimal quantityValue;
+    private String quantityUnit;
+    private BigDecimal unitPrice;
+    private Integer quantity;
+    private BigDecimal lineTotal;
+}
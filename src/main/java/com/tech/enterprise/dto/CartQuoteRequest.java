@@ -0,0 +1,15 @@
+package com.tech.enterprise.dto;
+
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a cart price quote request.
+ */
+@Data
+@NoArgsConstructor
+public class CartQuoteRequest {
+    private List<CartLine> lines;
+}
@@ -0,0 +1,21 @@
+package com.tech.enterprise.dto;
+
+import java.util.List;
+
+/**
+ * Catalog changes after version {@code since}, as of version {@code version}
+ * or later; changes already included may be sent again next time.
+ *
+ * Normally products and variants are the rows to add or replace, and the
+ * removed ids are rows that were deleted or deactivated since. When
+ * {@code full} is true the client's copy could not be brought forward (too
+ * old, too many changes, or a version this database never had): products and
+ * variants then hold the whole active catalog and replace the client's copy.
+ * Products are sent without nested variants; variants carry their productId,
+ * and a removed product takes its variants with it; when a deactivated
+ * product is reactivated its variants are sent again. Variants carry no stock
+ * (always null); it is read live from the variant endpoints.
+ */
+public record CatalogDelta(long since, long version, boolean full, List<ProductView> products,
+        List<VariantView> variants, List<Long> removedProductIds, List<Long> removedVariantIds) {
+}
@@ -0,0 +1,12 @@
+package com.tech.enterprise.dto;
+
+import java.util.List;
+
+/**
+ * A tenant's active products with their active variants, as of catalog
+ * version {@code version} or later. Clients can resume the change stream from
+ * that version; changes already included may be replayed. Variants carry no
+ * stock; it is read live from the variant endpoints.
+ */
+public record CatalogView(long version, List<ProductView> products) {
+}
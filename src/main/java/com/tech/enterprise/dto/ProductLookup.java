@@ -0,0 +1,26 @@
+package com.tech.enterprise.dto;
+
+import java.util.List;
+
+import com.tech.enterprise.model.Product;
+import com.tech.enterprise.model.ProductVariant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of a multi-get response. found=false marks an id that does not
+ * exist for the tenant; product and variants are then omitted.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductLookup {
+    private Long id;
+    private Boolean found;
+    private Product product;
+    private List<ProductVariant> variants;
+}
@@ -0,0 +1,25 @@
+package com.tech.enterprise.dto;
+
+import java.math.BigDecimal;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a partial product update. Fields left null are not changed.
+ */
+@Data
+@NoArgsConstructor
+public class ProductPatch {
+    private String name;
+    private String category;
+    private String description;
+    private BigDecimal price;
+    private String unit;
+    private Boolean active;
+
+    public boolean isEmpty() {
+        return name == null && category == null && description == null && price == null && unit == null
+                && active == null;
+    }
+}
@@ -0,0 +1,35 @@
+package com.tech.enterprise.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com.tech.enterprise.model.Product;
+
+/**
+ * Read-only product row for list responses, selected with a JPQL constructor
+ * expression so it never enters the persistence context. Serializes like
+ * Product; variants is only set in the aggregated catalog.
+ */
+public record ProductView(Long id, String name, Long tenantId, String imageName, String imageHash,
+        String category, String description, BigDecimal price, String unit, Boolean active, Long version,
+        List<VariantView> variants) {
+
+    /**
+     * Used by the constructor expressions in ProductRepository.
+     */
+    public ProductView(Long id, String name, Long tenantId, String imageName, String imageHash, String category,
+            String description, BigDecimal price, String unit, Boolean active, Long version) {
+        this(id, name, tenantId, imageName, imageHash, category, description, price, unit, active, version, null);
+    }
+
+    public static ProductView of(Product product) {
+        return new ProductView(product.getId(), product.getName(), product.getTenantId(), product.getImageName(),
+                product.getImageHash(), product.getCategory(), product.getDescription(), product.getPrice(),
+                product.getUnit(), product.getActive(), product.getVersion());
+    }
+
+    public ProductView withVariants(List<VariantView> variants) {
+        return new ProductView(id, name, tenantId, imageName, imageHash, category, description, price, unit, active,
+                version, variants);
+    }
+}
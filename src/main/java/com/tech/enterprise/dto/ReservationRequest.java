@@ -0,0 +1,14 @@
+package com.tech.enterprise.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a stock reservation request.
+ */
+@Data
+@NoArgsConstructor
+public class ReservationRequest {
+    private Long variantId;
+    private Integer quantity;
+}
@@ -0,0 +1,13 @@
+package com.tech.enterprise.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for an admin stock adjustment. Positive delta restocks, negative removes.
+ */
+@Data
+@NoArgsConstructor
+public class StockAdjustmentRequest {
+    private Integer delta;
+}
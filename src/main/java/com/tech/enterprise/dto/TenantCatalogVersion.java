@@ -0,0 +1,8 @@
+package com.tech.enterprise.dto;
+
+/**
+ * A tenant's committed catalog version, selected with a JPQL constructor
+ * expression.
+ */
+public record TenantCatalogVersion(Long tenantId, Long version) {
+}
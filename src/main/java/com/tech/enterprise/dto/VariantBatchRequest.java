@@ -0,0 +1,15 @@
+package com.tech.enterprise.dto;
+
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a batch of variant operations on one product.
+ */
+@Data
+@NoArgsConstructor
+public class VariantBatchRequest {
+    private List<VariantOperation> operations;
+}
@@ -0,0 +1,23 @@
+package com.tech.enterprise.dto;
+
+import com.tech.enterprise.model.ProductVariant;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A single create/update/delete operation inside a variant batch.
+ * variantId is required for UPDATE and DELETE, variant for CREATE and UPDATE.
+ */
+@Data
+@NoArgsConstructor
+public class VariantOperation {
+
+    public enum Type {
+        CREATE, UPDATE, DELETE
+    }
+
+    private Type type;
+    private Long variantId;
+    private ProductVariant variant;
+}
@@ -0,0 +1,22 @@
+package com.tech.enterprise.dto;
+
+import com.tech.enterprise.model.ProductVariant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of one batch operation, returned in the same order as the request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VariantOperationResult {
+    private int index;
+    private VariantOperation.Type type;
+    private Long variantId;
+    private ProductVariant variant;
+}
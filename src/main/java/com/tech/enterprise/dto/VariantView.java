@@ -0,0 +1,13 @@
+package com.tech.enterprise.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only variant row for list responses, selected with a JPQL constructor
+ * expression so it never enters the persistence context. Serializes like
+ * ProductVariant. Stock is null, and so not serialized, in the versioned
+ * catalog (see ProductVariantRepository.CATALOG_VIEW).
+ */
+public record VariantView(Long id, Long productId, Long tenantId, BigDecimal quantityValue, String quantityUnit,
+        BigDecimal price, Boolean active, Integer stock, Long version) {
+}
@@ -9,11 +9,13 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "admins")
+@Table(name = "admins",
+        uniqueConstraints = @UniqueConstraint(name = "uk_admins_tenant_username", columnNames = { "tenant_id", "username" }))
 @Data
 @NoArgsConstructor
 public class Admin implements Serializable {
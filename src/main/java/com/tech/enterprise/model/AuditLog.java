@@ -0,0 +1,61 @@
+package com.tech.enterprise.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One audited admin mutation. Rows are written in batches by AuditLogWriter
+ * and only read through the audit endpoint.
+ */
+@Entity
+@Table(name = "audit_log", indexes = @Index(name = "idx_audit_log_tenant_id_id", columnList = "tenant_id, id"))
+@Data
+@NoArgsConstructor
+public class AuditLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+
+    @Column(name = "admin_id")
+    private Long adminId;
+
+    @Column(name = "admin_username")
+    private String adminUsername;
+
+    @Column(name = "entity_type", nullable = false, length = 16)
+    private String entityType;
+
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    @Column(nullable = false, length = 16)
+    private String action;
+
+    /**
+     * JSON of the entity before the change; null for creates.
+     */
+    @Column(name = "before_value", columnDefinition = "text")
+    private String beforeValue;
+
+    /**
+     * JSON of the entity after the change; null for product deletes.
+     */
+    @Column(name = "after_value", columnDefinition = "text")
+    private String afterValue;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+}
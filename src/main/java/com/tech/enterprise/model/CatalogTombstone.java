@@ -0,0 +1,57 @@
+package com.tech.enterprise.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Marker left by a delete, so catalog deltas can tell clients to drop the
+ * row; deleted rows themselves are never loaded. Purged after the tombstone retention, which moves the tenant's
+ * delta horizon past it.
+ */
+@Entity
+@Table(name = "catalog_tombstones")
+@Data
+@NoArgsConstructor
+public class CatalogTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+
+    @Column(name = "entity_type", nullable = false, length = 16)
+    private String entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    /**
+     * Catalog version of the delete.
+     */
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+
+    public static CatalogTombstone of(Long tenantId, String entityType, Long entityId, long changeSeq,
+            Instant deletedAt) {
+        CatalogTombstone tombstone = new CatalogTombstone();
+        tombstone.setTenantId(tenantId);
+        tombstone.setEntityType(entityType);
+        tombstone.setEntityId(entityId);
+        tombstone.setChangeSeq(changeSeq);
+        tombstone.setDeletedAt(deletedAt);
+        return tombstone;
+    }
+}
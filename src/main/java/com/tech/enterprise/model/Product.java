@@ -1,6 +1,10 @@
 package com.tech.enterprise.model;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+
+import org.hibernate.annotations.PartitionKey;
+import org.hibernate.annotations.SQLRestriction;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -8,14 +12,27 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "products")
+@SQLRestriction("deleted_at is null")
 @Data
 @NoArgsConstructor
 public class Product {
+
+    /**
+     * Product names are unique per tenant among products that are not
+     * deleted; enforced by a partial unique index in the database only.
+     */
+    public static final String NAME_CONSTRAINT = "uk_products_tenant_name";
+
+    /**
+     * Assigned by the database: an identity column, or a sequence default
+     * once the table is partitioned.
+     */
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -23,16 +40,49 @@ public class Product {
     @Column(nullable = false)
     private String name;
 
+    /**
+     * Hash partition key of a partitioned table. Hibernate adds it to the
+     * WHERE clause of entity updates and deletes, so they touch one partition.
+     */
+    @PartitionKey
     @Column(name = "tenant_id", nullable = false)
     private Long tenantId;
 
     @Column(name = "image_name")
     private String imageName;
 
+    /**
+     * SHA-256 of the uploaded image; null until an image is uploaded.
+     */
+    @Column(name = "image_hash", length = 64)
+    private String imageHash;
+
     private String category;
     private String description;
     private BigDecimal price;
     private String unit;
     private Boolean active = true;
 
+    /**
+     * Catalog version of the last change to this product, for catalog deltas.
+     * Set by the services from the version they reserve for the write.
+     */
+    @Column(name = "change_seq", nullable = false, columnDefinition = "bigint default 0")
+    private Long changeSeq = 0L;
+
+    /**
+     * When the product was deleted; null while it exists. Deleted products
+     * are never loaded (see the class's SQL restriction) and are moved to
+     * products_archive by CatalogArchiveService after the archive retention.
+     */
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+
+    /**
+     * Optimistic lock, exposed to clients as the ETag.
+     */
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
 }
\ No newline at end of file
@@ -1,6 +1,10 @@
 package com.tech.enterprise.model;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+
+import org.hibernate.annotations.PartitionKey;
+import org.hibernate.annotations.SQLRestriction;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -8,14 +12,20 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "product_variants")
+@SQLRestriction("deleted_at is null")
 @Data
 @NoArgsConstructor
 public class ProductVariant {
+    /**
+     * Assigned by the database: an identity column, or a sequence default
+     * once the table is partitioned.
+     */
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -23,6 +33,11 @@ public class ProductVariant {
     @Column(name = "product_id", nullable = false)
     private Long productId;
 
+    /**
+     * Hash partition key of a partitioned table. Hibernate adds it to the
+     * WHERE clause of entity updates and deletes, so they touch one partition.
+     */
+    @PartitionKey
     @Column(name = "tenant_id", nullable = false)
     private Long tenantId;
 
@@ -37,4 +52,36 @@ public class ProductVariant {
 
     @Column(nullable = false)
     private Boolean active = true;
+
+    /**
+     * Units available for reservation. Null means stock is not tracked.
+     * Set on insert, then only changed through the conditional UPDATEs in
+     * ProductVariantRepository: not updatable, so an entity update never
+     * writes back a stock value loaded before a concurrent reservation.
+     */
+    @Column(updatable = false)
+    private Integer stock;
+
+    /**
+     * Catalog version of the last change to this variant, for catalog deltas.
+     * Set by the services from the version they reserve for the write.
+     */
+    @Column(name = "change_seq", nullable = false, columnDefinition = "bigint default 0")
+    private Long changeSeq = 0L;
+
+    /**
+     * When the variant, or its product, was deleted; null while it exists.
+     * Deleted variants are never loaded and are moved to
+     * product_variants_archive by CatalogArchiveService.
+     */
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+
+    /**
+     * Optimistic lock, exposed to clients as the ETag. Stock updates do not
+     * bump it, so reservations never invalidate an admin's edit.
+     */
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
 }
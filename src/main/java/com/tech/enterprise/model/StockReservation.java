@@ -0,0 +1,51 @@
+package com.tech.enterprise.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Units of a variant held for a buyer until confirmed, released or expired.
+ * The random UUID id doubles as the handle the storefront uses to confirm or
+ * release the reservation.
+ */
+@Entity
+@Table(name = "stock_reservations")
+@Data
+@NoArgsConstructor
+public class StockReservation {
+
+    public enum Status {
+        HELD, CONFIRMED, RELEASED, EXPIRED
+    }
+
+    @Id
+    private UUID id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+
+    @Column(name = "variant_id", nullable = false)
+    private Long variantId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
@@ -1,7 +1,10 @@
 package com.tech.enterprise.model;
 
+import com.tech.enterprise.tenant.TenantCacheEviction;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -11,6 +14,7 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "tenants")
+@EntityListeners(TenantCacheEviction.class)
 @Data
 @NoArgsConstructor
 public class Tenant {
@@ -27,4 +31,18 @@ public class Tenant {
 
     @Column(nullable = false)
     private Boolean active = true;
+
+    /**
+     * Incremented on every catalog write for this tenant; null until the first write.
+     */
+    @Column(name = "catalog_version")
+    private Long catalogVersion;
+
+    /**
+     * Oldest catalog version a delta can start from. Tombstones up to it may
+     * have been purged, so clients that are further behind get the full
+     * catalog.
+     */
+    @Column(name = "delta_horizon", nullable = false, columnDefinition = "bigint default 0")
+    private Long deltaHorizon = 0L;
 }
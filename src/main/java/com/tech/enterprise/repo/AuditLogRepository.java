@@ -0,0 +1,15 @@
+package com.tech.enterprise.repo;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.tech.enterprise.model.AuditLog;
+
+public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
+
+    Slice<AuditLog> findByTenantId(Long tenantId, Pageable pageable);
+
+    Slice<AuditLog> findByTenantIdAndEntityTypeAndEntityId(Long tenantId, String entityType, Long entityId,
+            Pageable pageable);
+}
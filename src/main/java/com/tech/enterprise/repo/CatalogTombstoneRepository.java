@@ -0,0 +1,39 @@
+package com.tech.enterprise.repo;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.tech.enterprise.dto.TenantCatalogVersion;
+import com.tech.enterprise.model.CatalogTombstone;
+
+import jakarta.persistence.QueryHint;
+
+public interface CatalogTombstoneRepository extends JpaRepository<CatalogTombstone, Long> {
+
+    /**
+     * Deletes after the given catalog version, oldest first.
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.READ))
+    @Query("from CatalogTombstone t where t.tenantId = :tenantId and t.changeSeq > :since order by t.changeSeq")
+    List<CatalogTombstone> findChangedSince(@Param("tenantId") Long tenantId, @Param("since") long since,
+            Limit limit);
+
+    /**
+     * Per tenant, the newest version among tombstones older than the cutoff:
+     * the delta horizon once they are purged.
+     */
+    @Query("select new com.tech.enterprise.dto.TenantCatalogVersion(t.tenantId, max(t.changeSeq)) "
+            + "from CatalogTombstone t where t.deletedAt < :cutoff group by t.tenantId")
+    List<TenantCatalogVersion> findHorizonsBefore(@Param("cutoff") Instant cutoff);
+
+    @Modifying
+    @Query("delete from CatalogTombstone t where t.deletedAt < :cutoff")
+    int deleteDeletedBefore(@Param("cutoff") Instant cutoff);
+}
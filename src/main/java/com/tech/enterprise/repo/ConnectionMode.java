@@ -0,0 +1,54 @@
+package com.tech.enterprise.repo;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * How the application's connections reach Postgres, chosen with
+ * app.datasource.connection-mode (DB_CONNECTION_MODE). It decides which
+ * driver settings are safe.
+ */
+public enum ConnectionMode {
+
+    /**
+     * Supabase's transaction pooler (port 6543) or PgBouncer in transaction
+     * mode. Consecutive transactions can land on different server
+     * connections, so named server-side prepared statements cannot be used and
+     * every statement is parsed and planned again.
+     */
+    TRANSACTION_POOLER,
+
+    /**
+     * A direct connection or a session pooler (Supabase port 5432). Each pooled
+     * connection keeps its server connection, so statements are prepared once
+     * per connection and their plans reused.
+     */
+    SESSION;
+
+    /**
+     * @param prepareThreshold Executions of a statement before the driver
+     *        switches it to a named server-side prepared statement (session
+     *        mode only)
+     * @return pgjdbc connection properties for this mode
+     */
+    public Map<String, String> driverProperties(int prepareThreshold) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        switch (this) {
+            case TRANSACTION_POOLER -> {
+                properties.put("prepareThreshold", "0");
+                // Nothing would be reused, so do not keep a client-side cache either
+                properties.put("preparedStatementCacheQueries", "0");
+            }
+            case SESSION -> {
+                properties.put("prepareThreshold", Integer.toString(prepareThreshold));
+                properties.put("preparedStatementCacheQueries", "256");
+                properties.put("preparedStatementCacheSizeMiB", "5");
+                // JDBC batches of INSERTs are sent as multi-row INSERTs (the
+                // loadtest seeder); update counts come back as SUCCESS_NO_INFO,
+                // which nothing batched through Hibernate relies on
+                properties.put("reWriteBatchedInserts", "true");
+            }
+        }
+        return properties;
+    }
+}
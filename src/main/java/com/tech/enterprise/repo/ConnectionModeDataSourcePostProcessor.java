@@ -0,0 +1,97 @@
+package com.tech.enterprise.repo;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies the driver settings of the configured ConnectionMode to the Hikari
+ * pool, and in session mode sizes the pool to app.datasource.session.pool-size
+ * (a session pooler holds one server connection per client connection).
+ *
+ * Runs before initialization, so it sees the HikariDataSource itself rather
+ * than the datasource-proxy wrapper QueryCountingDataSourcePostProcessor adds
+ * afterwards, and before the pool has opened a connection.
+ *
+ * pgjdbc lets parameters in the URL override these properties, so a DB_URL
+ * that contradicts the mode (a leftover ?prepareThreshold=0 in session mode)
+ * fails startup instead of silently winning.
+ */
+@Component
+@Slf4j
+public class ConnectionModeDataSourcePostProcessor implements BeanPostProcessor {
+
+    /**
+     * Port of Supabase's transaction pooler.
+     */
+    private static final String TRANSACTION_POOLER_PORT = ":6543/";
+
+    private final ConnectionMode mode;
+    private final int prepareThreshold;
+    private final int sessionPoolSize;
+
+    public ConnectionModeDataSourcePostProcessor(
+            @Value("${app.datasource.connection-mode:TRANSACTION_POOLER}") ConnectionMode mode,
+            @Value("${app.datasource.session.prepare-threshold:5}") int prepareThreshold,
+            @Value("${app.datasource.session.pool-size:10}") int sessionPoolSize) {
+        this.mode = mode;
+        this.prepareThreshold = prepareThreshold;
+        this.sessionPoolSize = sessionPoolSize;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource hikari) {
+            configure(hikari);
+        }
+        return bean;
+    }
+
+    void configure(HikariDataSource hikari) {
+        String url = hikari.getJdbcUrl();
+        Map<String, String> urlParameters = urlParameters(url);
+        mode.driverProperties(prepareThreshold).forEach((name, value) -> {
+            String fromUrl = urlParameters.get(name);
+            if (fromUrl != null && !fromUrl.equalsIgnoreCase(value)) {
+                throw new IllegalStateException("The datasource URL sets " + name + "=" + fromUrl
+                        + ", but connection mode " + mode + " needs " + name + "=" + value
+                        + "; remove it from DB_URL or change app.datasource.connection-mode");
+            }
+            hikari.addDataSourceProperty(name, value);
+        });
+
+        if (mode == ConnectionMode.SESSION) {
+            hikari.setMaximumPoolSize(sessionPoolSize);
+            hikari.setMinimumIdle(sessionPoolSize);
+            if (url != null && url.contains(TRANSACTION_POOLER_PORT)) {
+                log.warn("Connection mode SESSION with a URL on port 6543, which is Supabase's transaction "
+                        + "pooler; prepared statements will fail if it really is one");
+            }
+            log.info("Datasource connection mode SESSION, pool size {}", sessionPoolSize);
+        } else {
+            log.info("Datasource connection mode {}", mode);
+        }
+    }
+
+    private static Map<String, String> urlParameters(String url) {
+        Map<String, String> parameters = new HashMap<>();
+        int query = url == null ? -1 : url.indexOf('?');
+        if (query < 0) {
+            return parameters;
+        }
+        for (String pair : url.substring(query + 1).split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                parameters.put(pair.substring(0, equals), pair.substring(equals + 1));
+            }
+        }
+        return parameters;
+    }
+}
@@ -1,14 +1,128 @@
 package com.tech.enterprise.repo;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.tech.enterprise.dto.ProductView;
 import com.tech.enterprise.model.Product;
 
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+
 public interface ProductRepository extends JpaRepository<Product, Long> {
-    List<Product> findByTenantId(Long tenantId);
-    boolean existsByNameAndTenantId(String name, Long tenantId);
+    /**
+     * Select list for read-only views; the rows are not managed entities.
+     */
+    String VIEW = "select new com.tech.enterprise.dto.ProductView(p.id, p.name, p.tenantId, p.imageName, "
+            + "p.imageHash, p.category, p.description, p.price, p.unit, p.active, p.version) from Product p ";
+
+    /**
+     * Columns copied to products_archive, which has the same columns plus
+     * archived_at (see V5__soft_delete.sql).
+     */
+    String ARCHIVE_COLUMNS = "id, name, tenant_id, image_name, image_hash, category, description, price, unit, "
+            + "active, version, change_seq, deleted_at";
+
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.READ))
     Optional<Product> findByIdAndTenantId(Long id, Long tenantId);
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.READ))
+    List<Product> findByIdInAndTenantId(Collection<Long> ids, Long tenantId);
+    boolean existsByIdAndTenantId(Long id, Long tenantId);
+
+    // Public reads: inactive products are only visible to admins
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.READ))
+    Optional<Product> findByIdAndTenantIdAndActiveTrue(Long id, Long tenantId);
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.READ))
+    List<Product> findByIdInAndTenantIdAndActiveTrue(Collection<Long> ids, Long tenantId);
+    boolean existsByIdAndTenantIdAndActiveTrue(Long id, Long tenantId);
+
+    /**
+     * All of the tenant's products, active or not, for admins and the catalog
+     * snapshot. Deleted products are never loaded.
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.READ))
+    @Query(VIEW + "where p.tenantId = :tenantId")
+    List<ProductView> findViewsByTenantId(@Param("tenantId") Long tenantId);
+
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.READ))
+    @Query(VIEW + "where p.tenantId = :tenantId and p.active = true order by p.id")
+    List<ProductView> findActiveViewsByTenantId(@Param("tenantId") Long tenantId);
+
+    /**
+     * Products written after the given catalog version, active or not, oldest
+     * change first.
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.READ))
+    @Query(VIEW + "where p.tenantId = :tenantId and p.changeSeq > :since order by p.changeSeq")
+    List<ProductView> findViewsChangedSince(@Param("tenantId") Long tenantId, @Param("since") long since,
+            Limit limit);
+
+    /**
+     * Set the non-null fields, the change sequence and bump the version in one
+     * statement, provided the row is not deleted and is still at the expected
+     * version (any version when null).
+     *
+     * @return 1 if updated, 0 if missing, deleted or the version did not match
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LOCKING_WRITE))
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Product p set p.name = coalesce(:name, p.name), "
+            + "p.category = coalesce(:category, p.category), "
+            + "p.description = coalesce(:description, p.description), "
+            + "p.price = coalesce(:price, p.price), "
+            + "p.unit = coalesce(:unit, p.unit), "
+            + "p.active = coalesce(:active, p.active), "
+            + "p.changeSeq = :changeSeq, "
+            + "p.version = p.version + 1 "
+            + "where p.id = :id and p.tenantId = :tenantId and p.deletedAt is null "
+            + "and (:version is null or p.version = :version)")
+    int patch(@Param("id") Long id, @Param("tenantId") Long tenantId, @Param("version") Long expectedVersion,
+            @Param("changeSeq") long changeSeq,
+            @Param("name") String name, @Param("category") String category,
+            @Param("description") String description, @Param("price") BigDecimal price,
+            @Param("unit") String unit, @Param("active") Boolean active);
+
+    /**
+     * Tenants with products deleted before the cutoff. Native, as deleted
+     * products are invisible to queries on the entity.
+     */
+    @Query(nativeQuery = true, value = "select distinct tenant_id from products where deleted_at < :cutoff")
+    List<Long> findTenantIdsDeletedBefore(@Param("cutoff") Instant cutoff);
+
+    /**
+     * Move up to batchSize of the tenant's products deleted before the cutoff,
+     * longest deleted first, to products_archive, and all of their variants to
+     * product_variants_archive. Runs and commits in its own transaction, so a
+     * batch holds its row locks only briefly; rows locked by a concurrent
+     * transaction are left for a later batch. Every table is filtered on the
+     * tenant, so on partitioned tables the batch touches one partition each.
+     *
+     * @return Number of products archived
+     */
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = "with batch as ("
+            + "select id from products where tenant_id = :tenantId and deleted_at < :cutoff "
+            + "order by deleted_at limit :batchSize for update skip locked), "
+            + "moved_variants as (delete from product_variants v using batch b "
+            + "where v.tenant_id = :tenantId and v.product_id = b.id returning v.*), "
+            + "archived_variants as (insert into product_variants_archive ("
+            + ProductVariantRepository.ARCHIVE_COLUMNS + ", archived_at) "
+            + "select " + ProductVariantRepository.ARCHIVE_COLUMNS + ", now() from moved_variants), "
+            + "moved as (delete from products p using batch b "
+            + "where p.tenant_id = :tenantId and p.id = b.id returning p.*) "
+            + "insert into products_archive (" + ARCHIVE_COLUMNS + ", archived_at) "
+            + "select " + ARCHIVE_COLUMNS + ", now() from moved")
+    int archiveDeletedBefore(@Param("tenantId") Long tenantId, @Param("cutoff") Instant cutoff,
+            @Param("batchSize") int batchSize);
 }
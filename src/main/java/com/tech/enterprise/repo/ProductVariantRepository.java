@@ -1,16 +1,203 @@
 package com.tech.enterprise.repo;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.tech.enterprise.dto.VariantView;
 import com.tech.enterprise.model.ProductVariant;
 
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+
 @Repository
 public interface ProductVariantRepository extends JpaRepository<ProductVariant, Long> {
-    List<ProductVariant> findByProductIdAndTenantId(Long productId, Long tenantId);
+    /**
+     * Select list for read-only views; the rows are not managed entities.
+     */
+    String VIEW = "select new com.tech.enterprise.dto.VariantView(v.id, v.productId, v.tenantId, v.quantityValue, "
+            + "v.quantityUnit, v.price, v.active, v.stock, v.version) from ProductVariant v ";
+
+    /**
+     * VIEW without stock, for the versioned catalog (catalog, deltas and the
+     * snapshot). Reservations do not take a catalog version, so stock copied
+     * into the catalog would go stale; it is only served by the live variant
+     * reads.
+     */
+    String CATALOG_VIEW = "select new com.tech.enterprise.dto.VariantView(v.id, v.productId, v.tenantId, "
+            + "v.quantityValue, v.quantityUnit, v.price, v.active, cast(null as Integer), v.version) "
+            + "from ProductVariant v ";
+
+    /**
+     * Columns copied to product_variants_archive, which has the same columns
+     * plus archived_at (see V5__soft_delete.sql).
+     */
+    String ARCHIVE_COLUMNS = "id, product_id, tenant_id, quantity_value, quantity_unit, price, active, stock, "
+            + "version, change_seq, deleted_at";
 
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.READ))
     Optional<ProductVariant> findByIdAndTenantId(Long id, Long tenantId);
+
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.READ))
+    List<ProductVariant> findByIdInAndTenantId(Collection<Long> ids, Long tenantId);
+
+    /**
+     * The active variants of active products among the given ids: what a cart
+     * may be quoted for.
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.READ))
+    @Query("select v from ProductVariant v where v.id in :ids and v.tenantId = :tenantId and v.active = true "
+            + "and exists (select 1 from Product p where p.id = v.productId and p.tenantId = v.tenantId "
+            + "and p.active = true)")
+    List<ProductVariant> findPurchasableByIdInAndTenantId(@Param("ids") Collection<Long> ids,
+            @Param("tenantId") Long tenantId);
+
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.READ))
+    List<ProductVariant> findByProductIdInAndTenantId(Collection<Long> productIds, Long tenantId);
+
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.READ))
+    List<ProductVariant> findByProductIdInAndTenantIdAndActiveTrue(Collection<Long> productIds, Long tenantId);
+
+    /**
+     * All of the product's variants, active or not, for admins.
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.READ))
+    @Query(VIEW + "where v.productId = :productId and v.tenantId = :tenantId")
+    List<VariantView> findViewsByProductIdAndTenantId(@Param("productId") Long productId,
+            @Param("tenantId") Long tenantId);
+
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.READ))
+    @Query(VIEW + "where v.productId = :productId and v.tenantId = :tenantId and v.active = true order by v.id")
+    List<VariantView> findActiveViewsByProductIdAndTenantId(@Param("productId") Long productId,
+            @Param("tenantId") Long tenantId);
+
+    /**
+     * All of the tenant's variants, active or not, without stock, for the
+     * catalog snapshot.
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.READ))
+    @Query(CATALOG_VIEW + "where v.tenantId = :tenantId order by v.productId, v.id")
+    List<VariantView> findViewsByTenantId(@Param("tenantId") Long tenantId);
+
+    /**
+     * The tenant's active variants, without stock, for the catalog.
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.READ))
+    @Query(CATALOG_VIEW + "where v.tenantId = :tenantId and v.active = true order by v.productId, v.id")
+    List<VariantView> findActiveViewsByTenantId(@Param("tenantId") Long tenantId);
+
+    /**
+     * Variants written after the given catalog version, active or not, without
+     * stock, oldest change first.
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.READ))
+    @Query(CATALOG_VIEW + "where v.tenantId = :tenantId and v.changeSeq > :since order by v.changeSeq")
+    List<VariantView> findViewsChangedSince(@Param("tenantId") Long tenantId, @Param("since") long since,
+            Limit limit);
+
+    /**
+     * Atomically take stock from an active variant. Untracked stock (null) always
+     * succeeds and stays null. Does not take a catalog version, so concurrent
+     * reservations in a tenant never wait for each other.
+     *
+     * @return 1 if reserved, 0 if missing, inactive or not enough stock
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LOCKING_WRITE))
+    @Modifying(clearAutomatically = true)
+    @Query("update ProductVariant v set v.stock = v.stock - :qty "
+            + "where v.id = :id and v.tenantId = :tenantId and v.active = true "
+            + "and (v.stock is null or v.stock >= :qty)")
+    int tryReserveStock(@Param("id") Long id, @Param("tenantId") Long tenantId, @Param("qty") int qty);
+
+    /**
+     * Return previously reserved units to a variant.
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LOCKING_WRITE))
+    @Modifying(clearAutomatically = true)
+    @Query("update ProductVariant v set v.stock = v.stock + :qty where v.id = :id and v.tenantId = :tenantId")
+    int restoreStock(@Param("id") Long id, @Param("tenantId") Long tenantId, @Param("qty") int qty);
+
+    /**
+     * Atomically add (or remove, with a negative delta) stock without going
+     * below zero, recording the catalog version of the change.
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LOCKING_WRITE))
+    @Modifying(clearAutomatically = true)
+    @Query("update ProductVariant v set v.stock = coalesce(v.stock, 0) + :delta, v.changeSeq = :changeSeq "
+            + "where v.id = :id and v.tenantId = :tenantId and v.deletedAt is null "
+            + "and coalesce(v.stock, 0) + :delta >= 0")
+    int adjustStock(@Param("id") Long id, @Param("tenantId") Long tenantId, @Param("delta") int delta,
+            @Param("changeSeq") long changeSeq);
+
+    /**
+     * Give all of a product's variants the given catalog version without
+     * changing them, so deltas send them again. Used when the product is
+     * reactivated: clients dropped its variants along with it.
+     *
+     * @return Number of variants marked
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LOCKING_WRITE))
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update ProductVariant v set v.changeSeq = :changeSeq "
+            + "where v.productId = :productId and v.tenantId = :tenantId and v.deletedAt is null")
+    int markChangedByProductId(@Param("productId") Long productId, @Param("tenantId") Long tenantId,
+            @Param("changeSeq") long changeSeq);
+
+    /**
+     * Delete all of a product's remaining variants along with it, with the
+     * product's catalog version and deletion time, and leave a VARIANT
+     * tombstone for each in the same statement: deleted variants are invisible
+     * to findViewsChangedSince, so deltas only learn of them from tombstones.
+     * Native, for the data-modifying CTE.
+     *
+     * @return Number of variants deleted
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LOCKING_WRITE))
+    @Query(nativeQuery = true, value = "with deleted as ("
+            + "update product_variants set active = false, deleted_at = :deletedAt, change_seq = :changeSeq, "
+            + "version = version + 1 "
+            + "where product_id = :productId and tenant_id = :tenantId and deleted_at is null returning id), "
+            + "tombstones as (insert into catalog_tombstones "
+            + "(tenant_id, entity_type, entity_id, change_seq, deleted_at) "
+            + "select :tenantId, 'VARIANT', id, :changeSeq, :deletedAt from deleted returning entity_id) "
+            + "select count(*) from tombstones")
+    long softDeleteByProductId(@Param("productId") Long productId, @Param("tenantId") Long tenantId,
+            @Param("changeSeq") long changeSeq, @Param("deletedAt") Instant deletedAt);
+
+    /**
+     * Tenants with variants deleted before the cutoff. Native, as deleted
+     * variants are invisible to queries on the entity.
+     */
+    @Query(nativeQuery = true, value = "select distinct tenant_id from product_variants where deleted_at < :cutoff")
+    List<Long> findTenantIdsDeletedBefore(@Param("cutoff") Instant cutoff);
+
+    /**
+     * Move up to batchSize of the tenant's variants deleted before the cutoff,
+     * longest deleted first, to product_variants_archive. Variants of deleted
+     * products are normally moved with them by
+     * ProductRepository.archiveDeletedBefore. Runs and commits in its own
+     * transaction.
+     *
+     * @return Number of variants archived
+     */
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = "with batch as ("
+            + "select id from product_variants where tenant_id = :tenantId and deleted_at < :cutoff "
+            + "order by deleted_at limit :batchSize for update skip locked), "
+            + "moved as (delete from product_variants v using batch b "
+            + "where v.tenant_id = :tenantId and v.id = b.id returning v.*) "
+            + "insert into product_variants_archive (" + ARCHIVE_COLUMNS + ", archived_at) "
+            + "select " + ARCHIVE_COLUMNS + ", now() from moved")
+    int archiveDeletedBefore(@Param("tenantId") Long tenantId, @Param("cutoff") Instant cutoff,
+            @Param("batchSize") int batchSize);
 }
@@ -0,0 +1,27 @@
+package com.tech.enterprise.repo;
+
+/**
+ * Statement timeouts, in milliseconds, for repository methods on request hot
+ * paths. Applied with {@code @QueryHints(@QueryHint(name = HINT, value = ...))}
+ * and enforced by the driver, so a stalled query fails fast instead of holding
+ * its connection until the transaction timeout. Everything else gets the
+ * global jakarta.persistence.query.timeout from application.properties.
+ */
+public final class QueryTimeouts {
+
+    public static final String HINT = "jakarta.persistence.query.timeout";
+
+    /**
+     * Storefront and admin catalog reads.
+     */
+    public static final String READ = "3000";
+
+    /**
+     * Row-locking writes that storefront checkout waits on (stock, catalog
+     * version, reservation state).
+     */
+    public static final String LOCKING_WRITE = "2000";
+
+    private QueryTimeouts() {
+    }
+}
@@ -0,0 +1,47 @@
+package com.tech.enterprise.repo;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The schema is owned by the Flyway migrations in db/migration, applied on
+ * startup; Hibernate only validates against it.
+ *
+ * app.schema.migrate-on-startup=false skips the migration (fast-startup
+ * replicas, the CDS training run in the Dockerfile). It is read at runtime
+ * because spring.flyway.enabled is a build-time condition in an AOT build.
+ *
+ * app.schema.tenant-partitions above zero converts products and
+ * product_variants to that many hash partitions on tenant_id after migrating
+ * (see V3__tenant_partitioning.sql). The conversion rewrites both tables under
+ * an exclusive lock the first time and does nothing once they are partitioned.
+ */
+@Configuration
+@Slf4j
+public class SchemaMigrationConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(
+            @Value("${app.schema.migrate-on-startup:true}") boolean migrateOnStartup,
+            @Value("${app.schema.tenant-partitions:0}") int tenantPartitions) {
+        return flyway -> {
+            if (migrateOnStartup) {
+                flyway.migrate();
+                if (tenantPartitions > 0) {
+                    long start = System.nanoTime();
+                    new JdbcTemplate(flyway.getConfiguration().getDataSource())
+                            .update("call partition_catalog_tables(?)", tenantPartitions);
+                    log.info("Catalog tables hash-partitioned by tenant into {} partitions ({} ms)",
+                            tenantPartitions, (System.nanoTime() - start) / 1_000_000);
+                }
+            } else {
+                log.info("Schema migrations skipped (app.schema.migrate-on-startup=false)");
+            }
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package com.tech.enterprise.repo;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.tech.enterprise.model.StockReservation;
+import com.tech.enterprise.model.StockReservation.Status;
+
+import jakarta.persistence.QueryHint;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, UUID> {
+
+    Optional<StockReservation> findByIdAndTenantId(UUID id, Long tenantId);
+
+    List<StockReservation> findTop500ByStatusAndExpiresAtBefore(Status status, Instant now);
+
+    /**
+     * Move a reservation between states only if it is still in the expected one.
+     *
+     * @return 1 if this caller won the transition, 0 otherwise
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LOCKING_WRITE))
+    @Modifying(clearAutomatically = true)
+    @Query("update StockReservation r set r.status = :to "
+            + "where r.id = :id and r.tenantId = :tenantId and r.status = :from")
+    int transition(@Param("id") UUID id, @Param("tenantId") Long tenantId, @Param("from") Status from,
+            @Param("to") Status to);
+
+    /**
+     * Move a reservation between states only if it belongs to the tenant, is
+     * still in the expected state and has not expired yet.
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LOCKING_WRITE))
+    @Modifying(clearAutomatically = true)
+    @Query("update StockReservation r set r.status = :to where r.id = :id and r.tenantId = :tenantId "
+            + "and r.status = :from and r.expiresAt > :now")
+    int transitionIfLive(@Param("id") UUID id, @Param("tenantId") Long tenantId, @Param("from") Status from,
+            @Param("to") Status to, @Param("now") Instant now);
+}
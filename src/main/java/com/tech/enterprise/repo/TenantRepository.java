@@ -1,14 +1,49 @@
 package com.tech.enterprise.repo;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.tech.enterprise.dto.TenantCatalogVersion;
 import com.tech.enterprise.model.Tenant;
 
+import jakarta.persistence.QueryHint;
+
 public interface TenantRepository extends JpaRepository<Tenant, Long> {
 
     Optional<Tenant> findBySlugAndActiveTrue(String slug);
 
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.READ))
     Optional<Tenant> findBySlug(String slug);
+
+    /**
+     * Advance the tenant's catalog version. The row lock taken here is held until
+     * commit, so versions are handed out in commit order per tenant.
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LOCKING_WRITE))
+    @Modifying
+    @Query("update Tenant t set t.catalogVersion = coalesce(t.catalogVersion, 0) + :count where t.id = :id")
+    int incrementCatalogVersion(@Param("id") Long id, @Param("count") long count);
+
+    @Query("select coalesce(t.catalogVersion, 0) from Tenant t where t.id = :id")
+    Long findCatalogVersionById(@Param("id") Long id);
+
+    @Query("select new com.tech.enterprise.dto.TenantCatalogVersion(t.id, coalesce(t.catalogVersion, 0)) "
+            + "from Tenant t where t.active = true")
+    List<TenantCatalogVersion> findActiveCatalogVersions();
+
+    @Query("select t.deltaHorizon from Tenant t where t.id = :id")
+    Long findDeltaHorizonById(@Param("id") Long id);
+
+    /**
+     * Move the delta horizon forward to the given version; never backwards.
+     */
+    @Modifying
+    @Query("update Tenant t set t.deltaHorizon = :horizon where t.id = :id and t.deltaHorizon < :horizon")
+    int raiseDeltaHorizon(@Param("id") Long id, @Param("horizon") long horizon);
 }
@@ -1,15 +1,19 @@
 package com.tech.enterprise.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
 import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -22,6 +26,14 @@ import java.util.List;
  * 
  * Security rules:
  * - Permit: POST /api/{tenantSlug}/admins/login
+ * - Permit: POST /api/{tenantSlug}/reservations/** (storefront checkout)
+ * - Permit: POST /api/{tenantSlug}/cart/quote (storefront checkout)
+ * - Permit: /livez and /readyz (platform health checks on the public port)
+ * - Permit: /actuator/prometheus on the management port (metrics scraping);
+ *   on the public port only with app.metrics.public-scrape=true
+ * - Management port only: Other /actuator/** endpoints (slow queries span
+ *   all tenants, so no tenant admin session is enough)
+ * - Secure: /internal/** diagnostics (query stats, when enabled)
  * - Secure: All other /api/** endpoints require authentication
  * - Session-based authentication (default Spring Security behavior)
  * - CSRF disabled for stateless API usage
@@ -30,6 +42,15 @@ import java.util.List;
 @EnableWebSecurity
 public class SecurityConfig {
 
+        @Value("${server.port:8080}")
+        private int serverPort;
+
+        @Value("${management.server.port:-1}")
+        private int managementPort;
+
+        @Value("${app.metrics.public-scrape:false}")
+        private boolean publicScrape;
+
         @Bean
         public SecurityContextRepository securityContextRepository() {
                 return new HttpSessionSecurityContextRepository();
@@ -55,8 +76,26 @@ public class SecurityConfig {
                                                 .requestMatchers(HttpMethod.POST, "/api/*/admins/logout").permitAll()
                                                 // Permit public product access
                                                 .requestMatchers(HttpMethod.GET, "/api/*/products/**").permitAll()
+                                                // Permit public catalog reads and change stream
+                                                .requestMatchers(HttpMethod.GET, "/api/*/catalog/**").permitAll()
+                                                // Permit storefront stock reservations
+                                                .requestMatchers(HttpMethod.POST, "/api/*/reservations/**").permitAll()
+                                                // Permit storefront cart pricing
+                                                .requestMatchers(HttpMethod.POST, "/api/*/cart/quote").permitAll()
                                                 // Permit actuator health endpoint
-                                                .requestMatchers("/actuator/health", "/actuator/info").permitAll()
+                                                .requestMatchers("/actuator/health", "/actuator/info", "/livez", "/readyz")
+                                                .permitAll()
+                                                // Permit metrics scraping on the internal management port
+                                                .requestMatchers(onManagementPort("/actuator/prometheus")).permitAll()
+                                                // The public listener serves metrics only when the operator opts in
+                                                .requestMatchers("/actuator/prometheus")
+                                                .access((authentication, context) -> new AuthorizationDecision(publicScrape))
+                                                // Other actuator endpoints (slow queries) show every tenant's
+                                                // statements: internal management port only
+                                                .requestMatchers(onManagementPort("/actuator/**")).permitAll()
+                                                .requestMatchers("/actuator/**").denyAll()
+                                                // Diagnostics such as /internal/query-stats need an admin session
+                                                .requestMatchers("/internal/**").authenticated()
                                                 // Secure all other API endpoints
                                                 .requestMatchers("/api/**").authenticated()
                                                 // Permit everything else (static resources, etc.)
@@ -85,6 +124,16 @@ public class SecurityConfig {
                 return http.build();
         }
 
+        /**
+         * Matches requests that arrived on a management port separate from the
+         * server port. That listener is not exposed publicly.
+         */
+        private RequestMatcher onManagementPort(String pattern) {
+                RequestMatcher path = AntPathRequestMatcher.antMatcher(pattern);
+                return request -> managementPort > 0 && managementPort != serverPort
+                                && request.getLocalPort() == managementPort && path.matches(request);
+        }
+
         @Bean
         public AuthenticationManager authenticationManager(AuthenticationConfiguration config)
                         throws Exception {
@@ -100,8 +149,10 @@ public class SecurityConfig {
                                 "http://localhost:5173",
                                 "https://shobha-enterprise.vercel.app"));
 
-                configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+                configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
                 configuration.setAllowedHeaders(List.of("*"));
+                // Lets browser clients read the version for If-Match
+                configuration.setExposedHeaders(List.of("ETag"));
                 configuration.setAllowCredentials(true);
                 configuration.setMaxAge(3600L);
 
@@ -1,5 +1,8 @@
 package com.tech.enterprise.service;
 
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -13,10 +16,11 @@ import com.tech.enterprise.security.AdminUserDetails;
 import com.tech.enterprise.security.AdminUserDetailsService;
 import com.tech.enterprise.tenant.TenantResolver;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
@@ -26,7 +30,6 @@ import org.springframework.security.core.context.SecurityContext;
  * Authentication service handling admin login with tenant-aware authentication.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class AdminAuthService {
 
@@ -35,6 +38,17 @@ public class AdminAuthService {
     private final TenantResolver tenantResolver;
     private final AdminUserDetailsService adminUserDetailsService;
     private final PasswordEncoder passwordEncoder;
+    private final Timer passwordMatchTimer;
+    private final Timer passwordMismatchTimer;
+
+    public AdminAuthService(TenantResolver tenantResolver, AdminUserDetailsService adminUserDetailsService,
+            PasswordEncoder passwordEncoder, MeterRegistry meterRegistry) {
+        this.tenantResolver = tenantResolver;
+        this.adminUserDetailsService = adminUserDetailsService;
+        this.passwordEncoder = passwordEncoder;
+        this.passwordMatchTimer = passwordCheckTimer(meterRegistry, "match");
+        this.passwordMismatchTimer = passwordCheckTimer(meterRegistry, "mismatch");
+    }
 
     /**
      * Authenticate admin and establish session.
@@ -63,7 +77,11 @@ public class AdminAuthService {
         }
 
         // 3. Verify password using BCrypt
-        if (!passwordEncoder.matches(password, adminDetails.getPassword())) {
+        long started = System.nanoTime();
+        boolean matches = passwordEncoder.matches(password, adminDetails.getPassword());
+        (matches ? passwordMatchTimer : passwordMismatchTimer)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        if (!matches) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials");
         }
 
@@ -160,4 +178,43 @@ public class AdminAuthService {
                 .message("Profile fetched successfully")
                 .build();
     }
+
+    /**
+     * Validate that the authenticated admin belongs to the tenant specified in URL.
+     * This enforces strict tenant isolation for admin actions.
+     * 
+     * @param tenantSlug The tenant slug from URL
+     * @return The validated tenant ID
+     * @throws ResponseStatusException 403 if tenant mismatch
+     */
+    public Long validateAdminTenantAccess(String tenantSlug) {
+        // Get current authenticated admin
+        AdminUserDetails currentAdmin = getCurrentAdmin();
+        if (currentAdmin == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Not authenticated");
+        }
+
+        // Resolve tenant from URL
+        Tenant urlTenant = tenantResolver.resolveTenant(tenantSlug);
+
+        // Validate admin's tenant matches URL tenant
+        if (!currentAdmin.getTenantId().equals(urlTenant.getId())) {
+            log.error("Tenant mismatch! Admin tenant: {}, URL tenant ({}): {}",
+                    currentAdmin.getTenantId(), tenantSlug, urlTenant.getId());
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN,
+                    "Access denied: You can only access your own tenant's resources");
+        }
+
+        return urlTenant.getId();
+    }
+
+    private static Timer passwordCheckTimer(MeterRegistry registry, String result) {
+        return Timer.builder("auth.password.check")
+                .description("Time spent verifying admin passwords with BCrypt")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(10))
+                .maximumExpectedValue(Duration.ofSeconds(2))
+                .register(registry);
+    }
 }
@@ -0,0 +1,75 @@
+package com.tech.enterprise.service;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.tech.enterprise.audit.AuditEvent;
+import com.tech.enterprise.dto.AuditPage;
+import com.tech.enterprise.model.AuditLog;
+import com.tech.enterprise.repo.AuditLogRepository;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Read side of the audit trail. Entries are written asynchronously by
+ * AuditLogWriter, so a change shows up here shortly after it commits.
+ */
+@Service
+@RequiredArgsConstructor
+public class AuditService {
+
+    /**
+     * Upper bound on entries returned per page.
+     */
+    static final int MAX_PAGE_SIZE = 200;
+
+    private final AuditLogRepository auditLogRepository;
+
+    /**
+     * Get a page of a tenant's audit entries, newest first, optionally for a
+     * single entity.
+     *
+     * @throws ResponseStatusException 400 if the paging or filter parameters are invalid
+     */
+    @Transactional
+    public AuditPage getEntries(Long tenantId, String entityType, Long entityId, int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        if ((entityType == null) != (entityId == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "entityType and entityId must be given together");
+        }
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id"));
+        Slice<AuditLog> slice;
+        if (entityType == null) {
+            slice = auditLogRepository.findByTenantId(tenantId, pageable);
+        } else {
+            slice = auditLogRepository.findByTenantIdAndEntityTypeAndEntityId(tenantId,
+                    parseEntityType(entityType).name(), entityId, pageable);
+        }
+
+        return AuditPage.builder()
+                .entries(slice.getContent())
+                .page(page)
+                .size(size)
+                .hasNext(slice.hasNext())
+                .build();
+    }
+
+    private static AuditEvent.EntityType parseEntityType(String entityType) {
+        try {
+            return AuditEvent.EntityType.valueOf(entityType.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown entityType: " + entityType);
+        }
+    }
+}
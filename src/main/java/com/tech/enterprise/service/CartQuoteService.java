@@ -0,0 +1,210 @@
+package com.tech.enterprise.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.tech.enterprise.dto.CartLine;
+import com.tech.enterprise.dto.CartQuote;
+import com.tech.enterprise.dto.CartQuoteLine;
+import com.tech.enterprise.model.ProductVariant;
+import com.tech.enterprise.repo.ProductVariantRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Prices a cart of (variantId, qty) pairs with a single tenant-scoped IN query
+ * and signs the result.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CartQuoteService {
+
+    /**
+     * Upper bound on lines accepted in a single quote request.
+     */
+    static final int MAX_CART_LINES = 200;
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final ProductVariantRepository variantRepository;
+
+    @Value("${app.quotes.signing-secret:}")
+    private String signingSecret;
+
+    @Value("${app.quotes.ttl:PT15M}")
+    private Duration quoteTtl;
+
+    private SecretKeySpec signingKey;
+
+    @PostConstruct
+    void initSigningKey() {
+        byte[] keyBytes;
+        if (signingSecret == null || signingSecret.isBlank()) {
+            // Quotes signed with a random key do not survive a restart or verify across nodes
+            log.warn("app.quotes.signing-secret is not set; using a random per-process key");
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = signingSecret.getBytes(StandardCharsets.UTF_8);
+        }
+        signingKey = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+    }
+
+    /**
+     * Quote a cart for a tenant.
+     *
+     * @throws ResponseStatusException 400 if the cart is empty, too large, has an
+     *                                 invalid quantity, or references missing or
+     *                                 inactive variants or variants of inactive
+     *                                 products
+     */
+    public CartQuote quote(List<CartLine> lines, Long tenantId) {
+        if (lines == null || lines.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cart is empty");
+        }
+        if (lines.size() > MAX_CART_LINES) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "A cart may contain at most " + MAX_CART_LINES + " lines");
+        }
+
+        Set<Long> variantIds = new HashSet<>();
+        for (CartLine line : lines) {
+            if (line == null || line.getVariantId() == null
+                    || line.getQuantity() == null || line.getQuantity() <= 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Every line needs a variantId and a positive quantity");
+            }
+            variantIds.add(line.getVariantId());
+        }
+
+        // One query for every referenced variant, scoped to the tenant; variants
+        // of inactive products are left out, so they count as unavailable
+        Map<Long, ProductVariant> variants = variantRepository.findPurchasableByIdInAndTenantId(variantIds, tenantId)
+                .stream()
+                .collect(Collectors.toMap(ProductVariant::getId, Function.identity()));
+
+        return sign(price(lines, variants, tenantId));
+    }
+
+    /**
+     * Compute line totals and the cart total. No database access.
+     *
+     * @throws ResponseStatusException 400 if a line's variant is missing or inactive
+     */
+    public CartQuote price(List<CartLine> lines, Map<Long, ProductVariant> variants, Long tenantId) {
+        Set<Long> unavailable = new TreeSet<>();
+        List<CartQuoteLine> quoteLines = new ArrayList<>(lines.size());
+        BigDecimal total = BigDecimal.ZERO;
+
+        for (CartLine line : lines) {
+            ProductVariant variant = variants.get(line.getVariantId());
+            if (variant == null || !Boolean.TRUE.equals(variant.getActive())) {
+                unavailable.add(line.getVariantId());
+                continue;
+            }
+
+            BigDecimal lineTotal = variant.getPrice()
+                    .multiply(BigDecimal.valueOf(line.getQuantity()))
+                    .setScale(2, RoundingMode.HALF_UP);
+            total = total.add(lineTotal);
+
+            quoteLines.add(CartQuoteLine.builder()
+                    .variantId(variant.getId())
+                    .productId(variant.getProductId())
+                    .quantityValue(variant.getQuantityValue())
+                    .quantityUnit(variant.getQuantityUnit())
+                    .unitPrice(variant.getPrice())
+                    .quantity(line.getQuantity())
+                    .lineTotal(lineTotal)
+                    .build());
+        }
+
+        if (!unavailable.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Items are unavailable: " + unavailable);
+        }
+
+        Instant issuedAt = Instant.now();
+        return CartQuote.builder()
+                .tenantId(tenantId)
+                .lines(quoteLines)
+                .total(total.setScale(2, RoundingMode.HALF_UP))
+                .issuedAt(issuedAt)
+                .expiresAt(issuedAt.plus(quoteTtl))
+                .build();
+    }
+
+    /**
+     * Check that a quote was issued by this service and has not been altered.
+     * Quotes with missing fields are never valid.
+     */
+    public boolean verify(CartQuote quote) {
+        if (quote == null || quote.getSignature() == null || quote.getTenantId() == null
+                || quote.getIssuedAt() == null || quote.getExpiresAt() == null || quote.getTotal() == null
+                || quote.getLines() == null || quote.getLines().isEmpty()) {
+            return false;
+        }
+        for (CartQuoteLine line : quote.getLines()) {
+            if (line == null || line.getVariantId() == null || line.getQuantity() == null
+                    || line.getUnitPrice() == null) {
+                return false;
+            }
+        }
+        return MessageDigest.isEqual(
+                quote.getSignature().getBytes(StandardCharsets.US_ASCII),
+                computeSignature(quote).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private CartQuote sign(CartQuote quote) {
+        quote.setSignature(computeSignature(quote));
+        return quote;
+    }
+
+    private String computeSignature(CartQuote quote) {
+        StringBuilder payload = new StringBuilder(64 + quote.getLines().size() * 32)
+                .append(quote.getTenantId()).append('|')
+                .append(quote.getIssuedAt().toEpochMilli()).append('|')
+                .append(quote.getExpiresAt().toEpochMilli()).append('|');
+        for (CartQuoteLine line : quote.getLines()) {
+            payload.append(line.getVariantId()).append(':')
+                    .append(line.getQuantity()).append(':')
+                    .append(line.getUnitPrice().toPlainString()).append(';');
+        }
+        payload.append('|').append(quote.getTotal().toPlainString());
+
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            byte[] digest = mac.doFinal(payload.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign quote", e);
+        }
+    }
+}
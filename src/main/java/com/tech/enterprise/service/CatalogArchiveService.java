@@ -0,0 +1,73 @@
+package com.tech.enterprise.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.tech.enterprise.repo.ProductRepository;
+import com.tech.enterprise.repo.ProductVariantRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves products and variants that were deleted more than the retention ago
+ * to products_archive and product_variants_archive, so the live tables and
+ * their indexes only hold rows that can still be read.
+ *
+ * Work is done one tenant at a time, in batches that are each their own short
+ * transaction (see the repositories' archiveDeletedBefore), so the job never
+ * holds many row locks or one long transaction, and on partitioned tables
+ * each batch stays within one partition.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogArchiveService {
+
+    private final ProductRepository productRepository;
+    private final ProductVariantRepository variantRepository;
+
+    @Value("${app.catalog.archive.retention:P30D}")
+    private Duration retention;
+
+    @Value("${app.catalog.archive.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * For each tenant, archive products first, which takes their variants
+     * along, then the variants that were deleted on their own. A tenant's
+     * batches run back to back until one comes back short.
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.archive.interval:PT1H}")
+    public void archiveDeleted() {
+        Instant cutoff = Instant.now().minus(retention);
+        long start = System.nanoTime();
+        Set<Long> tenantIds = new TreeSet<>(productRepository.findTenantIdsDeletedBefore(cutoff));
+        tenantIds.addAll(variantRepository.findTenantIdsDeletedBefore(cutoff));
+
+        long products = 0;
+        long variants = 0;
+        for (Long tenantId : tenantIds) {
+            int batch;
+            do {
+                batch = productRepository.archiveDeletedBefore(tenantId, cutoff, batchSize);
+                products += batch;
+            } while (batch == batchSize);
+            do {
+                batch = variantRepository.archiveDeletedBefore(tenantId, cutoff, batchSize);
+                variants += batch;
+            } while (batch == batchSize);
+        }
+        if (!tenantIds.isEmpty()) {
+            log.info("Archived {} products with their variants and {} other variants deleted before {} "
+                    + "for {} tenants in {} ms", products, variants, cutoff, tenantIds.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+}
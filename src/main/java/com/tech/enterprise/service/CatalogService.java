@@ -0,0 +1,187 @@
+package com.tech.enterprise.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.tech.enterprise.catalog.CatalogChangeEvent.EntityType;
+import com.tech.enterprise.catalog.CatalogChangePublisher;
+import com.tech.enterprise.catalog.CatalogSnapshot;
+import com.tech.enterprise.dto.CatalogDelta;
+import com.tech.enterprise.dto.CatalogView;
+import com.tech.enterprise.dto.ProductView;
+import com.tech.enterprise.dto.TenantCatalogVersion;
+import com.tech.enterprise.dto.VariantView;
+import com.tech.enterprise.model.CatalogTombstone;
+import com.tech.enterprise.repo.CatalogTombstoneRepository;
+import com.tech.enterprise.repo.ProductRepository;
+import com.tech.enterprise.repo.ProductVariantRepository;
+import com.tech.enterprise.repo.TenantRepository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Builds the storefront catalog from read-only views: one query for the
+ * version, one for active products and one for active variants.
+ *
+ * Catalog deltas are read from the change_seq column that every product and
+ * variant write sets to its catalog version, plus the tombstones that deletes
+ * leave, since deleted rows are never loaded.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogService implements MeterBinder {
+
+    private final ProductRepository productRepository;
+    private final ProductVariantRepository variantRepository;
+    private final CatalogTombstoneRepository tombstoneRepository;
+    private final TenantRepository tenantRepository;
+    private final CatalogChangePublisher catalogChangePublisher;
+
+    private final LongAdder deltas = new LongAdder();
+    private final LongAdder fullResyncs = new LongAdder();
+
+    @Value("${app.catalog.delta.max-changes:1000}")
+    private int maxDeltaChanges;
+
+    @Value("${app.catalog.delta.tombstone-retention:P30D}")
+    private Duration tombstoneRetention;
+
+    /**
+     * Active products with their active variants, in id order.
+     */
+    @Transactional
+    public CatalogView getCatalog(Long tenantId) {
+        // Read before the rows, so the data is at least as new as the version
+        long version = catalogChangePublisher.currentVersion(tenantId);
+        List<ProductView> products = productRepository.findActiveViewsByTenantId(tenantId);
+
+        Map<Long, List<VariantView>> variantsByProduct = new HashMap<>(products.size() * 2);
+        for (VariantView variant : variantRepository.findActiveViewsByTenantId(tenantId)) {
+            variantsByProduct.computeIfAbsent(variant.productId(), id -> new ArrayList<>()).add(variant);
+        }
+
+        List<ProductView> result = new ArrayList<>(products.size());
+        for (ProductView product : products) {
+            result.add(product.withVariants(variantsByProduct.getOrDefault(product.id(), List.of())));
+        }
+        return new CatalogView(version, result);
+    }
+
+    /**
+     * Changes to the active catalog after the given version. Falls back to the
+     * full catalog when since is older than the tenant's delta horizon, newer
+     * than its current version, or more than max-changes rows have changed.
+     */
+    @Transactional
+    public CatalogDelta getChanges(Long tenantId, long since) {
+        // Read before the rows, so the data is at least as new as the version
+        long version = catalogChangePublisher.currentVersion(tenantId);
+        if (since == version) {
+            deltas.increment();
+            return new CatalogDelta(since, version, false, List.of(), List.of(), List.of(), List.of());
+        }
+        if (since > version) {
+            return fullCatalog(tenantId, since, version);
+        }
+
+        Limit limit = Limit.of(maxDeltaChanges + 1);
+        List<ProductView> changedProducts = productRepository.findViewsChangedSince(tenantId, since, limit);
+        List<VariantView> changedVariants = variantRepository.findViewsChangedSince(tenantId, since, limit);
+        List<CatalogTombstone> tombstones = tombstoneRepository.findChangedSince(tenantId, since, limit);
+        // Checked after reading the tombstones: a purge that committed before
+        // that read has already raised the horizon
+        if (since < tenantRepository.findDeltaHorizonById(tenantId)
+                || changedProducts.size() + changedVariants.size() + tombstones.size() > maxDeltaChanges) {
+            return fullCatalog(tenantId, since, version);
+        }
+
+        List<ProductView> products = new ArrayList<>();
+        List<Long> removedProductIds = new ArrayList<>();
+        for (ProductView product : changedProducts) {
+            if (Boolean.TRUE.equals(product.active())) {
+                products.add(product);
+            } else {
+                removedProductIds.add(product.id());
+            }
+        }
+        List<VariantView> variants = new ArrayList<>();
+        List<Long> removedVariantIds = new ArrayList<>();
+        for (VariantView variant : changedVariants) {
+            if (Boolean.TRUE.equals(variant.active())) {
+                variants.add(variant);
+            } else {
+                removedVariantIds.add(variant.id());
+            }
+        }
+        for (CatalogTombstone tombstone : tombstones) {
+            if (EntityType.PRODUCT.name().equals(tombstone.getEntityType())) {
+                removedProductIds.add(tombstone.getEntityId());
+            } else {
+                removedVariantIds.add(tombstone.getEntityId());
+            }
+        }
+        deltas.increment();
+        return new CatalogDelta(since, version, false, products, variants, removedProductIds, removedVariantIds);
+    }
+
+    private CatalogDelta fullCatalog(Long tenantId, long since, long version) {
+        fullResyncs.increment();
+        return new CatalogDelta(since, version, true, productRepository.findActiveViewsByTenantId(tenantId),
+                variantRepository.findActiveViewsByTenantId(tenantId), List.of(), List.of());
+    }
+
+    /**
+     * Drop tombstones older than the retention. Each tenant's delta horizon
+     * moves up to the newest tombstone dropped, in the same transaction.
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.delta.purge-interval:PT1H}")
+    @Transactional
+    public void purgeTombstones() {
+        Instant cutoff = Instant.now().minus(tombstoneRetention);
+        for (TenantCatalogVersion horizon : tombstoneRepository.findHorizonsBefore(cutoff)) {
+            tenantRepository.raiseDeltaHorizon(horizon.tenantId(), horizon.version());
+        }
+        int purged = tombstoneRepository.deleteDeletedBefore(cutoff);
+        if (purged > 0) {
+            log.info("Purged {} catalog tombstones older than {}", purged, cutoff);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // Delta requests answered with changes versus those sent the full catalog
+        FunctionCounter.builder("catalog.delta.requests", deltas, LongAdder::sum)
+                .tag("result", "delta")
+                .register(registry);
+        FunctionCounter.builder("catalog.delta.requests", fullResyncs, LongAdder::sum)
+                .tag("result", "full")
+                .register(registry);
+    }
+
+    /**
+     * All of the tenant's products and variants, active or not, encoded for
+     * the catalog snapshot file.
+     */
+    @Transactional
+    public CatalogSnapshot.Block getSnapshotBlock(Long tenantId) {
+        long version = catalogChangePublisher.currentVersion(tenantId);
+        return new CatalogSnapshot.Block(tenantId, version, System.currentTimeMillis(), CatalogSnapshot.encode(
+                productRepository.findViewsByTenantId(tenantId), variantRepository.findViewsByTenantId(tenantId)));
+    }
+}
@@ -0,0 +1,333 @@
+package com.tech.enterprise.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Content-addressed image store on local disk.
+ *
+ * Originals are stored once per SHA-256 hash under
+ * {dir}/{first two hex chars}/{hash}/original, so identical uploads are
+ * deduplicated. Resized JPEG renditions are generated on a background
+ * executor after the upload request has returned.
+ *
+ * A small file can declare huge dimensions, so the pixel count is read from
+ * the image header and capped before any pixels are decoded.
+ */
+@Service
+@Slf4j
+public class ImageStorageService {
+
+    /**
+     * Renditions generated for every upload, keyed by name with their max width.
+     */
+    public enum Rendition {
+        ORIGINAL(0), SMALL(320), MEDIUM(800);
+
+        private final int maxWidth;
+
+        Rendition(int maxWidth) {
+            this.maxWidth = maxWidth;
+        }
+
+        public String fileName() {
+            return this == ORIGINAL ? "original" : "w" + maxWidth + ".jpg";
+        }
+    }
+
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+    private static final float JPEG_QUALITY = 0.85f;
+    private static final int MAX_RENDITION_WIDTH = Arrays.stream(Rendition.values())
+            .mapToInt(rendition -> rendition.maxWidth)
+            .max()
+            .orElseThrow();
+
+    private final ExecutorService renditionExecutor = Executors.newFixedThreadPool(2, r -> {
+        Thread thread = new Thread(r, "image-renditions");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${app.images.dir:./data/images}")
+    private Path baseDir;
+
+    @Value("${app.images.max-size:5MB}")
+    private DataSize maxSize;
+
+    @Value("${app.images.max-pixels:40000000}")
+    private long maxPixels;
+
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(baseDir.resolve("tmp"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renditionExecutor.shutdown();
+    }
+
+    /**
+     * Store an uploaded image and schedule its renditions.
+     *
+     * @return The image's SHA-256 hash in lowercase hex
+     * @throws ResponseStatusException 400 if the upload is empty, too large,
+     *                                 not a JPEG or PNG image, or has more than
+     *                                 the configured number of pixels
+     */
+    public String store(InputStream content) throws IOException {
+        Path temp = Files.createTempFile(baseDir.resolve("tmp"), "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                size = copyLimited(content, out);
+            }
+            if (size == 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Image is empty");
+            }
+            if (!isSupportedImage(temp)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Only JPEG and PNG images are supported");
+            }
+            long pixels = pixelCount(temp);
+            if (pixels <= 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Image could not be read");
+            }
+            if (pixels > maxPixels) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Image must not exceed " + maxPixels + " pixels");
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path original = pathFor(hash, Rendition.ORIGINAL);
+            if (Files.exists(original)) {
+                return hash;
+            }
+
+            Files.createDirectories(original.getParent());
+            Files.move(temp, original, StandardCopyOption.ATOMIC_MOVE);
+            renditionExecutor.execute(() -> generateRenditions(hash));
+            return hash;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Locate a stored image. Falls back to the original while a rendition is
+     * still being generated.
+     */
+    public Optional<Path> resolve(String hash, Rendition rendition) {
+        if (hash == null || !HASH_PATTERN.matcher(hash).matches()) {
+            return Optional.empty();
+        }
+        Path path = pathFor(hash, rendition);
+        if (Files.isRegularFile(path)) {
+            return Optional.of(path);
+        }
+        Path original = pathFor(hash, Rendition.ORIGINAL);
+        return Files.isRegularFile(original) ? Optional.of(original) : Optional.empty();
+    }
+
+    /**
+     * Detect the stored content type from the file's magic bytes.
+     */
+    public String contentType(Path path) throws IOException {
+        byte[] header = new byte[4];
+        try (InputStream in = Files.newInputStream(path)) {
+            int read = in.readNBytes(header, 0, header.length);
+            if (read >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8) {
+                return "image/jpeg";
+            }
+            if (read == 4 && (header[0] & 0xFF) == 0x89 && header[1] == 'P' && header[2] == 'N' && header[3] == 'G') {
+                return "image/png";
+            }
+        }
+        return "application/octet-stream";
+    }
+
+    private void generateRenditions(String hash) {
+        try {
+            BufferedImage source = decode(pathFor(hash, Rendition.ORIGINAL));
+            if (source == null) {
+                return;
+            }
+            for (Rendition rendition : Rendition.values()) {
+                if (rendition != Rendition.ORIGINAL) {
+                    writeJpeg(resize(source, rendition.maxWidth), pathFor(hash, rendition));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to generate renditions for image {}", hash, e);
+        }
+    }
+
+    /**
+     * Width times height from the image header, without decoding pixels.
+     *
+     * @return The pixel count, or -1 if no reader recognizes the file
+     */
+    private static long pixelCount(Path path) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(path.toFile())) {
+            ImageReader reader = readerFor(in);
+            if (reader == null) {
+                return -1;
+            }
+            try {
+                return (long) reader.getWidth(0) * reader.getHeight(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Decode an image for resizing. Images wider than twice the largest
+     * rendition are subsampled while decoding, so only the pixels the
+     * renditions need are held in memory.
+     *
+     * @return The decoded image, or null if it is unreadable or over the pixel
+     *         cap (originals stored before the cap existed)
+     */
+    private BufferedImage decode(Path path) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(path.toFile())) {
+            ImageReader reader = readerFor(in);
+            if (reader == null) {
+                return null;
+            }
+            try {
+                int width = reader.getWidth(0);
+                if ((long) width * reader.getHeight(0) > maxPixels) {
+                    log.warn("Skipping renditions for {}: more than {} pixels", path, maxPixels);
+                    return null;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, width / MAX_RENDITION_WIDTH);
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static ImageReader readerFor(ImageInputStream in) {
+        if (in == null) {
+            return null;
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+        if (!readers.hasNext()) {
+            return null;
+        }
+        ImageReader reader = readers.next();
+        reader.setInput(in, true, true);
+        return reader;
+    }
+
+    private BufferedImage resize(BufferedImage source, int maxWidth) {
+        int width = Math.min(maxWidth, source.getWidth());
+        int height = Math.max(1, (int) Math.round(source.getHeight() * (width / (double) source.getWidth())));
+
+        // Draw onto an opaque RGB canvas: JPEG has no alpha channel
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        Path temp = Files.createTempFile(baseDir.resolve("tmp"), "rendition-", ".part");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private long copyLimited(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            total += read;
+            if (total > maxSize.toBytes()) {
+                throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Image is too large");
+            }
+            out.write(buffer, 0, read);
+        }
+        return total;
+    }
+
+    private boolean isSupportedImage(Path path) throws IOException {
+        String type = contentType(path);
+        return "image/jpeg".equals(type) || "image/png".equals(type);
+    }
+
+    private Path pathFor(String hash, Rendition rendition) {
+        return baseDir.resolve(Paths.get(hash.substring(0, 2), hash, rendition.fileName()));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
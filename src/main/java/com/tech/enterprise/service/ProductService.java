@@ -1,13 +1,36 @@
 package com.tech.enterprise.service;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.tech.enterprise.audit.AuditEvent;
+import com.tech.enterprise.audit.AuditRecorder;
+import com.tech.enterprise.catalog.CatalogChangeEvent.Action;
+import com.tech.enterprise.catalog.CatalogChangeEvent.EntityType;
+import com.tech.enterprise.catalog.CatalogChangePublisher;
+import com.tech.enterprise.dto.ProductLookup;
+import com.tech.enterprise.dto.ProductPatch;
+import com.tech.enterprise.dto.ProductView;
+import com.tech.enterprise.model.CatalogTombstone;
 import com.tech.enterprise.model.Product;
+import com.tech.enterprise.model.ProductVariant;
+import com.tech.enterprise.repo.CatalogTombstoneRepository;
 import com.tech.enterprise.repo.ProductRepository;
+import com.tech.enterprise.repo.ProductVariantRepository;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -20,18 +43,39 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ProductService {
 
+    /**
+     * Upper bound on ids accepted by a single multi-get.
+     */
+    static final int MAX_LOOKUP_IDS = 300;
+
+    /**
+     * Product.NAME_CONSTRAINT's index on a partition, e.g.
+     * products_p3_tenant_id_name_idx.
+     */
+    private static final Pattern NAME_PARTITION_INDEX = Pattern.compile("products_p\\d+_tenant_id_name_idx");
+
     private final ProductRepository productRepository;
+    private final ProductVariantRepository variantRepository;
+    private final CatalogTombstoneRepository tombstoneRepository;
+    private final CatalogChangePublisher catalogChangePublisher;
+    private final AuditRecorder auditRecorder;
 
     /**
-     * Get all products for a tenant.
+     * Get a tenant's products as read-only views.
+     *
+     * @param includeInactive Also return inactive products, for admins;
+     *                        otherwise only active ones, in id order
      */
     @Transactional
-    public List<Product> getProductsByTenantId(Long tenantId) {
-        return productRepository.findByTenantId(tenantId);
+    public List<ProductView> getProductsByTenantId(Long tenantId, boolean includeInactive) {
+        return includeInactive
+                ? productRepository.findViewsByTenantId(tenantId)
+                : productRepository.findActiveViewsByTenantId(tenantId);
     }
 
     /**
-     * Get a single product by ID, ensuring tenant isolation.
+     * Get a single product by ID, active or not, ensuring tenant isolation.
+     * For admins and writes; public reads use getActiveProductById.
      */
     @Transactional
     public Product getProductById(Long id, Long tenantId) {
@@ -41,49 +85,118 @@ public class ProductService {
     }
 
     /**
-     * Create a new product for the specified tenant.
+     * Get a single active product by ID. Inactive products are not found.
      */
     @Transactional
-    public Product saveProduct(Product product, Long tenantId) {
-        // 1. Validation for unique name within the same tenant
-        if (productRepository.existsByNameAndTenantId(product.getName(), tenantId)) {
+    public Product getActiveProductById(Long id, Long tenantId) {
+        return productRepository.findByIdAndTenantIdAndActiveTrue(id, tenantId)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "Product not found"));
+    }
+
+    /**
+     * Get several products by ID in one tenant-scoped query.
+     * Results follow request order; unknown ids come back with found=false.
+     *
+     * @param includeVariants Also load every listed product's variants in one query
+     * @param includeInactive Also return inactive products and variants, for
+     *                        admins; otherwise inactive ones are not found
+     * @throws ResponseStatusException 400 if no ids or too many ids are given
+     */
+    @Transactional
+    public List<ProductLookup> lookupProducts(List<Long> ids, boolean includeVariants, boolean includeInactive,
+            Long tenantId) {
+        if (ids == null || ids.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No product ids supplied");
+        }
+        if (ids.size() > MAX_LOOKUP_IDS) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
-                    "Product with the same name already exists for this tenant.");
+                    "At most " + MAX_LOOKUP_IDS + " product ids may be requested at once");
+        }
+
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        List<Product> found = includeInactive
+                ? productRepository.findByIdInAndTenantId(distinctIds, tenantId)
+                : productRepository.findByIdInAndTenantIdAndActiveTrue(distinctIds, tenantId);
+        Map<Long, Product> products = found.stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        Map<Long, List<ProductVariant>> variantsByProduct = Map.of();
+        if (includeVariants && !products.isEmpty()) {
+            List<ProductVariant> variants = includeInactive
+                    ? variantRepository.findByProductIdInAndTenantId(products.keySet(), tenantId)
+                    : variantRepository.findByProductIdInAndTenantIdAndActiveTrue(products.keySet(), tenantId);
+            variantsByProduct = variants.stream()
+                    .collect(Collectors.groupingBy(ProductVariant::getProductId));
         }
 
-        // 2. Set the tenant context
+        List<ProductLookup> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = products.get(id);
+            if (product == null) {
+                results.add(ProductLookup.builder().id(id).found(false).build());
+                continue;
+            }
+            results.add(ProductLookup.builder()
+                    .id(id)
+                    .found(true)
+                    .product(product)
+                    .variants(includeVariants ? variantsByProduct.getOrDefault(id, List.of()) : null)
+                    .build());
+        }
+        return results;
+    }
+
+    /**
+     * Create a new product for the specified tenant.
+     *
+     * @throws ResponseStatusException 400 if the name is already taken
+     */
+    @Transactional
+    public Product saveProduct(Product product, Long tenantId) {
+        // 1. Set the tenant context; the rest is server-managed, the hash only
+        // ever comes from attachImage
+        product.setId(null);
         product.setTenantId(tenantId);
+        product.setVersion(null);
+        product.setDeletedAt(null);
+        product.setImageHash(null);
 
-        // 3. Generate a unique image name BEFORE the first save
+        // 2. Generate a unique image name BEFORE the first save
         // This satisfies the NOT NULL constraint in your database
         String uniqueSuffix = java.util.UUID.randomUUID().toString().substring(0, 8);
-        String cleanName = product.getName().toLowerCase()
-                .trim()
-                .replaceAll("[^a-z0-9]+", "_")
-                .replaceAll("^_+|_+$", "");
+        String cleanName = toImageSlug(product.getName());
 
         // Format: name_tenantId_uniqueSuffix
         product.setImageName(cleanName + "_" + tenantId + "_" + uniqueSuffix);
 
-        // 4. Save the product once
-        return productRepository.save(product);
+        // 3. Save the product once; name uniqueness is enforced by the database
+        long changeSeq = catalogChangePublisher.nextVersion(tenantId);
+        product.setChangeSeq(changeSeq);
+        Product saved = saveAndFlush(product);
+        publishChange(saved, changeSeq, Action.CREATED);
+        audit(saved, AuditEvent.Action.CREATE, null, saved);
+        return saved;
     }
 
     /**
-     * Update an existing product, ensuring tenant isolation.
+     * Replace an existing product's editable fields, ensuring tenant isolation.
+     *
+     * @param expectedVersion Version from If-Match, or null to update unconditionally
+     * @throws ResponseStatusException 404 if not found, 412 if the product is not
+     *                                 at the expected version (or changes
+     *                                 concurrently), 400 if the name is already taken
      */
     @Transactional
-    public Product updateProduct(Long id, Product details, Long tenantId) {
+    public Product updateProduct(Long id, Product details, Long expectedVersion, Long tenantId) {
         Product existing = productRepository.findByIdAndTenantId(id, tenantId)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND, "Product not found"));
-
-        // Check if name is being changed to an existing name
-        if (!existing.getName().equals(details.getName()) &&
-                productRepository.existsByNameAndTenantId(details.getName(), tenantId)) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
-                    "Product with the same name already exists for this tenant.");
+        if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+            throw modifiedConcurrently();
         }
+        String before = auditRecorder.snapshot(existing);
+        boolean reactivated = !Boolean.TRUE.equals(existing.getActive()) && Boolean.TRUE.equals(details.getActive());
 
         // Update fields
         existing.setName(details.getName());
@@ -92,23 +205,187 @@ public class ProductService {
         existing.setPrice(details.getPrice());
         existing.setUnit(details.getUnit());
         existing.setActive(details.getActive());
+        long changeSeq = catalogChangePublisher.nextVersion(tenantId);
+        existing.setChangeSeq(changeSeq);
+
+        Product saved = saveAndFlush(existing);
+        if (reactivated) {
+            variantRepository.markChangedByProductId(id, tenantId, changeSeq);
+        }
+        publishChange(saved, changeSeq, Action.UPDATED);
+        audit(saved, AuditEvent.Action.UPDATE, before, saved);
+        return saved;
+    }
+
+    /**
+     * Update only the supplied fields with one conditional UPDATE, so there is
+     * no read-modify-write window. The row is read back afterwards for the
+     * response and change events.
+     *
+     * The audit entry has no before value; the previous state is the after
+     * value of the product's preceding audit entry. As the previous active
+     * flag is not read either, a patch with active=true always has deltas send
+     * the product's variants again, in case it was inactive.
+     *
+     * @param expectedVersion Version from If-Match, or null to update unconditionally
+     * @throws ResponseStatusException 400 if nothing is supplied or the name is
+     *                                 already taken, 404 if not found, 412 if the
+     *                                 product is not at the expected version
+     */
+    @Transactional
+    public Product patchProduct(Long id, ProductPatch patch, Long expectedVersion, Long tenantId) {
+        if (patch == null || patch.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No fields supplied");
+        }
+
+        long changeSeq = catalogChangePublisher.nextVersion(tenantId);
+        int updated;
+        try {
+            updated = productRepository.patch(id, tenantId, expectedVersion, changeSeq, patch.getName(),
+                    patch.getCategory(), patch.getDescription(), patch.getPrice(), patch.getUnit(),
+                    patch.getActive());
+        } catch (DataIntegrityViolationException e) {
+            throw translate(e);
+        }
+        if (updated == 0) {
+            // Failure path only: tell a missing product from a stale version
+            getProductById(id, tenantId);
+            throw modifiedConcurrently();
+        }
+        if (Boolean.TRUE.equals(patch.getActive())) {
+            variantRepository.markChangedByProductId(id, tenantId, changeSeq);
+        }
 
-        // Regenerate image name in case the product name was changed
+        Product saved = getProductById(id, tenantId);
+        publishChange(saved, changeSeq, Action.UPDATED);
+        audit(saved, AuditEvent.Action.UPDATE, null, saved);
+        return saved;
+    }
+
+    /**
+     * Point a product at a stored image.
+     */
+    @Transactional
+    public Product attachImage(Long id, String imageHash, Long tenantId) {
+        Product existing = getProductById(id, tenantId);
+        String before = auditRecorder.snapshot(existing);
+        existing.setImageHash(imageHash);
+        long changeSeq = catalogChangePublisher.nextVersion(tenantId);
+        existing.setChangeSeq(changeSeq);
 
-        return productRepository.save(existing);
+        Product saved = saveAndFlush(existing);
+        publishChange(saved, changeSeq, Action.UPDATED);
+        audit(saved, AuditEvent.Action.UPDATE, before, saved);
+        return saved;
     }
 
     /**
-     * Soft delete a product by setting active=false.
+     * Soft-delete a product and all of its variants, leaving a tombstone for
+     * each in catalog deltas. Its name can be reused at once; the rows stay until
+     * CatalogArchiveService archives them.
+     *
+     * The product and its variants share one catalog version, so the stream
+     * gets a single PRODUCT DELETED event for them: event ids must be unique
+     * for a client resuming with Last-Event-ID to miss nothing.
      */
     @Transactional
     public void deleteProduct(Long id, Long tenantId) {
         Product product = productRepository.findByIdAndTenantId(id, tenantId)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND, "Product not found"));
+        String before = auditRecorder.snapshot(product);
 
+        long changeSeq = catalogChangePublisher.nextVersion(tenantId);
+        Instant deletedAt = Instant.now();
         product.setActive(false);
-        productRepository.delete(product);
+        product.setDeletedAt(deletedAt);
+        product.setChangeSeq(changeSeq);
+        saveAndFlush(product);
+        variantRepository.softDeleteByProductId(id, tenantId, changeSeq, deletedAt);
+        tombstoneRepository.save(
+                CatalogTombstone.of(tenantId, EntityType.PRODUCT.name(), id, changeSeq, deletedAt));
+        publishChange(product, changeSeq, Action.DELETED);
+        audit(product, AuditEvent.Action.DELETE, before, null);
+    }
+
+    /**
+     * Lowercase the name and collapse every run of characters outside [a-z0-9]
+     * into a single underscore, without leading or trailing underscores.
+     * Single pass equivalent of
+     * replaceAll("[^a-z0-9]+", "_").replaceAll("^_+|_+$", "").
+     */
+    public static String toImageSlug(String name) {
+        String lower = name.toLowerCase();
+        StringBuilder slug = new StringBuilder(lower.length());
+        boolean pendingSeparator = false;
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                if (pendingSeparator && slug.length() > 0) {
+                    slug.append('_');
+                }
+                slug.append(c);
+                pendingSeparator = false;
+            } else {
+                pendingSeparator = true;
+            }
+        }
+        return slug.toString();
+    }
+
+    /**
+     * Save and flush, so constraint and version failures surface here rather
+     * than at commit.
+     */
+    private Product saveAndFlush(Product product) {
+        try {
+            return productRepository.saveAndFlush(product);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw modifiedConcurrently();
+        } catch (DataIntegrityViolationException e) {
+            throw translate(e);
+        }
+    }
+
+    private static ResponseStatusException modifiedConcurrently() {
+        return new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                "Product has been modified; reload it and retry");
+    }
+
+    /**
+     * Duplicate names become 400; any other integrity violation is rethrown.
+     */
+    private static RuntimeException translate(DataIntegrityViolationException e) {
+        if (e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && isNameConstraint(violation.getConstraintName().toLowerCase())) {
+            return new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Product with the same name already exists for this tenant.");
+        }
+        return e;
+    }
+
+    /**
+     * On partitioned tables the violation names the partition's copy of the
+     * index, which PostgreSQL names after the partition and columns.
+     */
+    private static boolean isNameConstraint(String constraintName) {
+        return constraintName.contains(Product.NAME_CONSTRAINT)
+                || NAME_PARTITION_INDEX.matcher(constraintName).find();
+    }
+
+    /**
+     * @param version The catalog version reserved for the write, also stored
+     *                as the product's change_seq
+     */
+    private void publishChange(Product product, long version, Action action) {
+        catalogChangePublisher.publish(product.getTenantId(), version, EntityType.PRODUCT, action,
+                product.getId(), product.getId());
+    }
+
+    private void audit(Product product, AuditEvent.Action action, String before, Product after) {
+        auditRecorder.record(product.getTenantId(), AuditEvent.EntityType.PRODUCT, product.getId(), action,
+                before, after);
     }
 
 }
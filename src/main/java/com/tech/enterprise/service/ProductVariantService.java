@@ -1,12 +1,33 @@
 package com.tech.enterprise.service;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.springframework.beans.BeanUtils;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.tech.enterprise.audit.AuditEvent;
+import com.tech.enterprise.audit.AuditRecorder;
+import com.tech.enterprise.catalog.CatalogChangeEvent.Action;
+import com.tech.enterprise.catalog.CatalogChangeEvent.EntityType;
+import com.tech.enterprise.catalog.CatalogChangePublisher;
+import com.tech.enterprise.dto.VariantOperation;
+import com.tech.enterprise.dto.VariantOperationResult;
+import com.tech.enterprise.dto.VariantView;
+import com.tech.enterprise.model.CatalogTombstone;
 import com.tech.enterprise.model.ProductVariant;
+import com.tech.enterprise.repo.CatalogTombstoneRepository;
+import com.tech.enterprise.repo.ProductRepository;
 import com.tech.enterprise.repo.ProductVariantRepository;
 
 import jakarta.transaction.Transactional;
@@ -16,14 +37,36 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ProductVariantService {
 
+    /**
+     * Upper bound on operations accepted in a single batch request.
+     */
+    static final int MAX_BATCH_OPERATIONS = 500;
+
     private final ProductVariantRepository variantRepository;
+    private final ProductRepository productRepository;
     private final ProductService productService;
+    private final CatalogTombstoneRepository tombstoneRepository;
+    private final CatalogChangePublisher catalogChangePublisher;
+    private final AuditRecorder auditRecorder;
 
+    /**
+     * Get a product's variants as read-only views.
+     *
+     * @param includeInactive Also return inactive variants, for admins;
+     *                        otherwise only active ones, in id order
+     * @throws ResponseStatusException 404 if the product does not belong to the tenant
+     */
     @Transactional
-    public List<ProductVariant> getVariantsByProductId(Long productId, Long tenantId) {
-        // Ensure the product exists and belongs to the tenant
-        productService.getProductById(productId, tenantId);
-        return variantRepository.findByProductIdAndTenantId(productId, tenantId);
+    public List<VariantView> getVariantsByProductId(Long productId, Long tenantId, boolean includeInactive) {
+        boolean exists = includeInactive
+                ? productRepository.existsByIdAndTenantId(productId, tenantId)
+                : productRepository.existsByIdAndTenantIdAndActiveTrue(productId, tenantId);
+        if (!exists) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found");
+        }
+        return includeInactive
+                ? variantRepository.findViewsByProductIdAndTenantId(productId, tenantId)
+                : variantRepository.findActiveViewsByProductIdAndTenantId(productId, tenantId);
     }
 
     @Transactional
@@ -31,32 +74,273 @@ public class ProductVariantService {
         // Ensure product exists and belongs to tenant
         productService.getProductById(productId, tenantId);
 
+        variant.setId(null);
         variant.setProductId(productId);
         variant.setTenantId(tenantId);
-        return variantRepository.save(variant);
+        variant.setVersion(null);
+        variant.setDeletedAt(null);
+        long changeSeq = catalogChangePublisher.nextVersion(tenantId);
+        variant.setChangeSeq(changeSeq);
+        ProductVariant saved = variantRepository.save(variant);
+        publishChange(saved, changeSeq, Action.CREATED);
+        audit(saved, AuditEvent.Action.CREATE, null);
+        return saved;
     }
 
+    /**
+     * Replace a variant's editable fields.
+     *
+     * @param expectedVersion Version from If-Match, or null to update unconditionally
+     * @throws ResponseStatusException 404 if not found, 412 if the variant is not
+     *                                 at the expected version (or changes concurrently)
+     */
     @Transactional
-    public ProductVariant updateVariant(Long variantId, ProductVariant details, Long tenantId) {
+    public ProductVariant updateVariant(Long variantId, ProductVariant details, Long expectedVersion,
+            Long tenantId) {
         ProductVariant existing = variantRepository.findByIdAndTenantId(variantId, tenantId)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND, "Variant not found"));
+        if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+            throw modifiedConcurrently();
+        }
+        String before = auditRecorder.snapshot(existing);
 
-        existing.setQuantityValue(details.getQuantityValue());
-        existing.setQuantityUnit(details.getQuantityUnit());
-        existing.setPrice(details.getPrice());
-        existing.setActive(details.getActive());
+        applyDetails(existing, details);
+        long changeSeq = catalogChangePublisher.nextVersion(tenantId);
+        existing.setChangeSeq(changeSeq);
 
-        return variantRepository.save(existing);
+        ProductVariant saved;
+        try {
+            saved = variantRepository.saveAndFlush(existing);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw modifiedConcurrently();
+        }
+        publishChange(saved, changeSeq, Action.UPDATED);
+        audit(saved, AuditEvent.Action.UPDATE, before);
+        return saved;
     }
 
+    /**
+     * Soft-delete a variant, leaving a tombstone for catalog deltas. The row
+     * stays until CatalogArchiveService archives it.
+     */
     @Transactional
     public void deleteVariant(Long variantId, Long tenantId) {
         ProductVariant existing = variantRepository.findByIdAndTenantId(variantId, tenantId)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND, "Variant not found"));
+        String before = auditRecorder.snapshot(existing);
 
+        long changeSeq = catalogChangePublisher.nextVersion(tenantId);
+        Instant deletedAt = Instant.now();
         existing.setActive(false);
+        existing.setDeletedAt(deletedAt);
+        existing.setChangeSeq(changeSeq);
         variantRepository.save(existing);
+        tombstoneRepository.save(
+                CatalogTombstone.of(tenantId, EntityType.VARIANT.name(), variantId, changeSeq, deletedAt));
+        publishChange(existing, changeSeq, Action.DELETED);
+        audit(existing, AuditEvent.Action.DELETE, before);
+    }
+
+    /**
+     * Atomically adjust a variant's stock. A variant that did not track stock
+     * starts from zero.
+     *
+     * @throws ResponseStatusException 404 if not found, 409 if the adjustment
+     *                                 would make stock negative
+     */
+    @Transactional
+    public ProductVariant adjustStock(Long variantId, int delta, Long tenantId) {
+        long changeSeq = catalogChangePublisher.nextVersion(tenantId);
+        if (variantRepository.adjustStock(variantId, tenantId, delta, changeSeq) == 0) {
+            variantRepository.findByIdAndTenantId(variantId, tenantId)
+                    .orElseThrow(() -> new ResponseStatusException(
+                            HttpStatus.NOT_FOUND, "Variant not found"));
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Stock cannot go below zero");
+        }
+        ProductVariant updated = variantRepository.findByIdAndTenantId(variantId, tenantId)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "Variant not found"));
+        publishChange(updated, changeSeq, Action.UPDATED);
+        // The update is atomic, so the previous state is derived rather than read
+        ProductVariant previous = new ProductVariant();
+        BeanUtils.copyProperties(updated, previous);
+        previous.setStock(updated.getStock() - delta);
+        audit(updated, AuditEvent.Action.UPDATE, auditRecorder.snapshot(previous));
+        return updated;
+    }
+
+    /**
+     * Apply a batch of create/update/delete operations to one product's variants
+     * in a single transaction.
+     *
+     * The tenant and product are validated once and all target variants are
+     * loaded with one IN query. The batch is all-or-nothing: any invalid
+     * operation rejects the whole request before anything is written.
+     *
+     * @return One result per operation, in request order
+     * @throws ResponseStatusException 400 if an operation is malformed, 404 if
+     *                                 the product or a target variant is not found,
+     *                                 409 if a target variant changed concurrently
+     */
+    @Transactional
+    public List<VariantOperationResult> applyBatch(Long productId, List<VariantOperation> operations,
+            Long tenantId) {
+        if (operations == null || operations.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No operations supplied");
+        }
+        if (operations.size() > MAX_BATCH_OPERATIONS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "A batch may contain at most " + MAX_BATCH_OPERATIONS + " operations");
+        }
+
+        // 1. Validate product ownership once for the whole batch
+        productService.getProductById(productId, tenantId);
+
+        // 2. Validate operation shapes and collect target ids
+        Set<Long> targetIds = new HashSet<>();
+        for (VariantOperation op : operations) {
+            if (op == null || op.getType() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Operation type is required");
+            }
+            if (op.getType() != VariantOperation.Type.DELETE && op.getVariant() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        op.getType() + " operation requires a variant payload");
+            }
+            if (op.getType() != VariantOperation.Type.CREATE) {
+                if (op.getVariantId() == null) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            op.getType() + " operation requires a variantId");
+                }
+                targetIds.add(op.getVariantId());
+            }
+        }
+
+        // 3. Load every target variant in one query, scoped to tenant and product
+        Map<Long, ProductVariant> targets = targetIds.isEmpty()
+                ? Map.of()
+                : variantRepository.findByIdInAndTenantId(targetIds, tenantId).stream()
+                        .filter(v -> productId.equals(v.getProductId()))
+                        .collect(Collectors.toMap(ProductVariant::getId, Function.identity()));
+
+        for (Long id : targetIds) {
+            if (!targets.containsKey(id)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Variant not found: " + id);
+            }
+        }
+
+        // 4. Snapshot targets for the audit trail
+        Map<Long, String> before = new HashMap<>();
+        targets.forEach((id, variant) -> before.put(id, auditRecorder.snapshot(variant)));
+
+        // 5. Reserve a catalog version for every operation in one statement,
+        // then apply the operations in order against the managed entities
+        long firstVersion = catalogChangePublisher.nextVersions(tenantId, operations.size());
+        Instant now = Instant.now();
+
+        List<ProductVariant> touched = new ArrayList<>(operations.size());
+        List<CatalogTombstone> tombstones = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            VariantOperation op = operations.get(i);
+            ProductVariant variant;
+            switch (op.getType()) {
+                case CREATE -> {
+                    variant = op.getVariant();
+                    variant.setId(null);
+                    variant.setVersion(null);
+                    variant.setDeletedAt(null);
+                    variant.setProductId(productId);
+                    variant.setTenantId(tenantId);
+                }
+                case UPDATE -> {
+                    variant = targets.get(op.getVariantId());
+                    applyDetails(variant, op.getVariant());
+                }
+                default -> {
+                    variant = targets.get(op.getVariantId());
+                    variant.setActive(false);
+                    variant.setDeletedAt(now);
+                    tombstones.add(CatalogTombstone.of(tenantId, EntityType.VARIANT.name(), variant.getId(),
+                            firstVersion + i, now));
+                }
+            }
+            variant.setChangeSeq(firstVersion + i);
+            touched.add(variant);
+        }
+
+        // 6. Flush everything together; updates go out as JDBC batches
+        try {
+            variantRepository.saveAll(touched);
+            variantRepository.flush();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Variants were modified concurrently; retry the batch");
+        }
+        tombstoneRepository.saveAll(tombstones);
+
+        List<VariantOperationResult> results = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            VariantOperation op = operations.get(i);
+            ProductVariant variant = touched.get(i);
+            catalogChangePublisher.publish(tenantId, firstVersion + i, EntityType.VARIANT,
+                    toAction(op.getType()), variant.getId(), productId);
+            audit(variant, toAuditAction(op.getType()),
+                    op.getType() == VariantOperation.Type.CREATE ? null : before.get(op.getVariantId()));
+            results.add(VariantOperationResult.builder()
+                    .index(i)
+                    .type(op.getType())
+                    .variantId(variant.getId())
+                    .variant(variant)
+                    .build());
+        }
+        return results;
+    }
+
+    /**
+     * @param version The catalog version reserved for the write, also stored
+     *                as the variant's change_seq
+     */
+    private void publishChange(ProductVariant variant, long version, Action action) {
+        catalogChangePublisher.publish(variant.getTenantId(), version, EntityType.VARIANT, action,
+                variant.getId(), variant.getProductId());
+    }
+
+    private void audit(ProductVariant variant, AuditEvent.Action action, String before) {
+        auditRecorder.record(variant.getTenantId(), AuditEvent.EntityType.VARIANT, variant.getId(), action,
+                before, variant);
+    }
+
+    private static ResponseStatusException modifiedConcurrently() {
+        return new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                "Variant has been modified; reload it and retry");
+    }
+
+    private static AuditEvent.Action toAuditAction(VariantOperation.Type type) {
+        return switch (type) {
+            case CREATE -> AuditEvent.Action.CREATE;
+            case UPDATE -> AuditEvent.Action.UPDATE;
+            case DELETE -> AuditEvent.Action.DELETE;
+        };
+    }
+
+    private static Action toAction(VariantOperation.Type type) {
+        return switch (type) {
+            case CREATE -> Action.CREATED;
+            case UPDATE -> Action.UPDATED;
+            case DELETE -> Action.DELETED;
+        };
+    }
+
+    /**
+     * Copy editable fields. Stock is not one of them: the column is not
+     * updatable (see ProductVariant.stock), so it only changes through the
+     * conditional stock updates.
+     */
+    private void applyDetails(ProductVariant existing, ProductVariant details) {
+        existing.setQuantityValue(details.getQuantityValue());
+        existing.setQuantityUnit(details.getQuantityUnit());
+        existing.setPrice(details.getPrice());
+        existing.setActive(details.getActive());
     }
 }
@@ -0,0 +1,67 @@
+package com.tech.enterprise.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Limits how many reservations one client may make per tenant and minute, so
+ * an anonymous storefront caller cannot hold a tenant's whole stock.
+ *
+ * Fixed one-minute windows counted in memory on each node; behind a load
+ * balancer the effective limit is this many per node.
+ */
+@Component
+public class ReservationRateLimiter {
+
+    private static final long WINDOW_MILLIS = 60_000;
+
+    private final int limit;
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    public ReservationRateLimiter(@Value("${app.reservations.rate-limit-per-minute:30}") int limit) {
+        this.limit = limit;
+    }
+
+    private record Window(long start, AtomicInteger count) {
+    }
+
+    /**
+     * Count reservation attempts.
+     *
+     * @param client       Client address
+     * @param reservations Reservations the request asks for
+     * @throws ResponseStatusException 429 once the client is over the limit
+     *                                 for the current minute
+     */
+    public void acquire(Long tenantId, String client, int reservations) {
+        long start = windowStart(System.currentTimeMillis());
+        Window window = windows.compute(tenantId + "|" + client,
+                (key, current) -> current == null || current.start() != start
+                        ? new Window(start, new AtomicInteger())
+                        : current);
+        if (window.count().addAndGet(reservations) > limit) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many reservations; try again in a minute");
+        }
+    }
+
+    /**
+     * Drop windows that are over, so idle clients do not accumulate.
+     */
+    @Scheduled(fixedDelay = WINDOW_MILLIS)
+    void evictExpired() {
+        long start = windowStart(System.currentTimeMillis());
+        windows.values().removeIf(window -> window.start() < start);
+    }
+
+    private static long windowStart(long millis) {
+        return millis - millis % WINDOW_MILLIS;
+    }
+}
@@ -0,0 +1,214 @@
+package com.tech.enterprise.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.tech.enterprise.dto.CartQuote;
+import com.tech.enterprise.dto.CartQuoteLine;
+import com.tech.enterprise.model.ProductVariant;
+import com.tech.enterprise.model.StockReservation;
+import com.tech.enterprise.model.StockReservation.Status;
+import com.tech.enterprise.repo.ProductVariantRepository;
+import com.tech.enterprise.repo.StockReservationRepository;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-variant inventory reservations.
+ *
+ * Every stock change is a single conditional UPDATE, so concurrent buyers never
+ * take a row lock for longer than that statement and stock can never go below
+ * zero. Reservation state changes are conditional too, which makes confirm,
+ * release and expiry safe to race against each other.
+ *
+ * Stock changes here do not take a catalog version, which would lock the
+ * tenant row and serialize every reservation in the tenant. The versioned
+ * catalog (catalog, deltas, snapshot) therefore does not carry stock; clients
+ * read it live from the variant list or batch lookup.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationService {
+
+    private final StockReservationRepository reservationRepository;
+    private final ProductVariantRepository variantRepository;
+    private final CartQuoteService cartQuoteService;
+
+    @Value("${app.reservations.ttl:PT10M}")
+    private Duration reservationTtl;
+
+    @Value("${app.reservations.max-quantity:20}")
+    private int maxQuantity;
+
+    /**
+     * Hold stock for a buyer.
+     *
+     * @throws ResponseStatusException 400 if quantity is not positive or above
+     *                                 max-quantity, 404 if the variant is
+     *                                 missing or inactive, 409 if there is not
+     *                                 enough stock
+     */
+    @Transactional
+    public StockReservation reserve(Long variantId, int quantity, Long tenantId) {
+        if (quantity <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Quantity must be positive");
+        }
+        if (quantity > maxQuantity) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxQuantity + " units may be reserved at once");
+        }
+
+        if (variantRepository.tryReserveStock(variantId, tenantId, quantity) == 0) {
+            // Only the failure path pays for a lookup to pick the right status
+            boolean available = variantRepository.findByIdAndTenantId(variantId, tenantId)
+                    .map(ProductVariant::getActive)
+                    .orElse(false);
+            if (!available) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Variant not found");
+            }
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Insufficient stock");
+        }
+
+        Instant now = Instant.now();
+        StockReservation reservation = new StockReservation();
+        reservation.setId(UUID.randomUUID());
+        reservation.setTenantId(tenantId);
+        reservation.setVariantId(variantId);
+        reservation.setQuantity(quantity);
+        reservation.setStatus(Status.HELD);
+        reservation.setCreatedAt(now);
+        reservation.setExpiresAt(now.plus(reservationTtl));
+        return reservationRepository.save(reservation);
+    }
+
+    /**
+     * Hold stock for every line of a signed cart quote, all or nothing: if one
+     * line cannot be reserved, none is.
+     *
+     * @return One reservation per quote line, in quote order
+     * @throws ResponseStatusException 400 if the quote was not issued for this
+     *                                 tenant by this backend or was altered,
+     *                                 410 if it has expired, otherwise as
+     *                                 reserve for the first line that fails
+     */
+    @Transactional
+    public List<StockReservation> reserveQuote(CartQuote quote, Long tenantId) {
+        if (!cartQuoteService.verify(quote) || !tenantId.equals(quote.getTenantId())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid quote");
+        }
+        if (!quote.getExpiresAt().isAfter(Instant.now())) {
+            throw new ResponseStatusException(HttpStatus.GONE, "Quote has expired");
+        }
+        List<StockReservation> reservations = new ArrayList<>(quote.getLines().size());
+        for (CartQuoteLine line : quote.getLines()) {
+            reservations.add(reserve(line.getVariantId(), line.getQuantity(), tenantId));
+        }
+        return reservations;
+    }
+
+    /**
+     * Confirm a held reservation. The stock stays taken.
+     *
+     * A reservation past its expiry that the sweep has not reached yet is
+     * expired here and its stock returned; that is committed even though the
+     * call fails.
+     *
+     * @throws ResponseStatusException 404 if not found, 410 if expired, 409 if
+     *                                 confirmed or released already
+     */
+    @Transactional(dontRollbackOn = ResponseStatusException.class)
+    public StockReservation confirm(UUID reservationId, Long tenantId) {
+        Instant now = Instant.now();
+        int updated = reservationRepository.transitionIfLive(
+                reservationId, tenantId, Status.HELD, Status.CONFIRMED, now);
+        StockReservation reservation = getReservation(reservationId, tenantId);
+        if (updated == 1) {
+            return reservation;
+        }
+        if (reservation.getStatus() == Status.HELD && !reservation.getExpiresAt().isAfter(now)) {
+            expire(reservation);
+        }
+        if (reservation.getStatus() == Status.EXPIRED) {
+            throw new ResponseStatusException(HttpStatus.GONE, "Reservation has expired");
+        }
+        throw new ResponseStatusException(HttpStatus.CONFLICT,
+                "Reservation is " + reservation.getStatus().name().toLowerCase());
+    }
+
+    /**
+     * Release a held reservation and return its stock.
+     *
+     * @throws ResponseStatusException 404 if not found, 409 if no longer held
+     */
+    @Transactional
+    public StockReservation release(UUID reservationId, Long tenantId) {
+        StockReservation reservation = getReservation(reservationId, tenantId);
+        if (reservationRepository.transition(reservationId, tenantId, Status.HELD, Status.RELEASED) == 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Reservation is " + reservation.getStatus().name().toLowerCase());
+        }
+        variantRepository.restoreStock(reservation.getVariantId(), tenantId, reservation.getQuantity());
+        reservation.setStatus(Status.RELEASED);
+        return reservation;
+    }
+
+    /**
+     * Expire reservations that were never confirmed and return their stock.
+     * Runs in batches; a reservation confirmed concurrently is left untouched.
+     */
+    @Scheduled(fixedDelayString = "${app.reservations.sweep-interval:PT30S}")
+    @Transactional
+    public void expireReservations() {
+        List<StockReservation> expired = reservationRepository
+                .findTop500ByStatusAndExpiresAtBefore(Status.HELD, Instant.now());
+
+        int count = 0;
+        for (StockReservation reservation : expired) {
+            if (expire(reservation)) {
+                count++;
+            }
+        }
+
+        if (count > 0) {
+            log.info("Expired {} stock reservations", count);
+        }
+    }
+
+    /**
+     * Move a held reservation to EXPIRED and return its stock, unless it left
+     * HELD concurrently. The status of the passed reservation is updated to
+     * the one it has now.
+     *
+     * @return true if this caller expired it
+     */
+    private boolean expire(StockReservation reservation) {
+        if (reservationRepository.transition(reservation.getId(), reservation.getTenantId(),
+                Status.HELD, Status.EXPIRED) == 0) {
+            reservationRepository.findByIdAndTenantId(reservation.getId(), reservation.getTenantId())
+                    .ifPresent(current -> reservation.setStatus(current.getStatus()));
+            return false;
+        }
+        variantRepository.restoreStock(reservation.getVariantId(), reservation.getTenantId(),
+                reservation.getQuantity());
+        reservation.setStatus(Status.EXPIRED);
+        return true;
+    }
+
+    private StockReservation getReservation(UUID reservationId, Long tenantId) {
+        return reservationRepository.findByIdAndTenantId(reservationId, tenantId)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "Reservation not found"));
+    }
+}
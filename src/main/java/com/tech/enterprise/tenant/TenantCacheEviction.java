@@ -0,0 +1,43 @@
+package com.tech.enterprise.tenant;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.tech.enterprise.model.Tenant;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JPA listener that evicts updated or deleted tenants from the slug cache.
+ *
+ * Eviction waits for the commit: evicting at flush time would let a
+ * concurrent request cache the old row again before the change is visible.
+ */
+@Component
+@RequiredArgsConstructor
+public class TenantCacheEviction {
+
+    // Looked up lazily: the resolver depends on the repository, which is
+    // built by the same EntityManagerFactory that creates this listener
+    private final ObjectProvider<TenantResolver> tenantResolver;
+
+    @PostUpdate
+    @PostRemove
+    void onChange(Tenant tenant) {
+        Long tenantId = tenant.getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            tenantResolver.getObject().evict(tenantId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                tenantResolver.getObject().evict(tenantId);
+            }
+        });
+    }
+}
@@ -1,23 +1,61 @@
 package com.tech.enterprise.tenant;
 
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.server.ResponseStatusException;
 
 import com.tech.enterprise.model.Tenant;
 import com.tech.enterprise.repo.TenantRepository;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 
 /**
  * Simple utility service to resolve tenant from URL slug.
  * Throws appropriate HTTP exceptions for invalid/inactive tenants.
+ * 
+ * Slug lookups can be cached for app.tenant.cache-ttl. The cache is off by
+ * default; when enabled, tenants updated through JPA are evicted on commit,
+ * and a change made directly in the database shows after at most the TTL.
+ * Unknown slugs are never cached.
+ * 
+ * The resolved tenant is also stored as a request attribute so request-scoped
+ * infrastructure (metrics, logging) can tag by tenant without resolving again.
  */
 @Service
-@RequiredArgsConstructor
-public class TenantResolver {
+public class TenantResolver implements MeterBinder {
+
+    /**
+     * Request attribute holding the Tenant resolved for the current request.
+     */
+    public static final String TENANT_ATTRIBUTE = TenantResolver.class.getName() + ".TENANT";
+
+    /**
+     * Safety valve against unbounded growth; the cache is simply cleared when hit.
+     */
+    private static final int MAX_CACHED_TENANTS = 10_000;
 
     private final TenantRepository tenantRepository;
+    private final long cacheTtlNanos;
+    private final Map<String, CachedTenant> slugCache = new ConcurrentHashMap<>();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
+    public TenantResolver(TenantRepository tenantRepository,
+            @Value("${app.tenant.cache-ttl:PT0S}") Duration cacheTtl) {
+        this.tenantRepository = tenantRepository;
+        this.cacheTtlNanos = cacheTtl.toNanos();
+    }
 
     /**
      * Resolves tenant from URL slug.
@@ -27,15 +65,14 @@ public class TenantResolver {
      * @throws ResponseStatusException 404 if tenant not found, 403 if inactive
      */
     public Tenant resolveTenant(String slug) {
-        Tenant tenant = tenantRepository.findBySlug(slug)
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.NOT_FOUND, "Tenant not found"));
+        Tenant tenant = findBySlug(slug);
 
         if (!Boolean.TRUE.equals(tenant.getActive())) {
             throw new ResponseStatusException(
                     HttpStatus.FORBIDDEN, "Tenant is inactive");
         }
 
+        exposeToRequest(tenant);
         return tenant;
     }
 
@@ -56,6 +93,66 @@ public class TenantResolver {
                     HttpStatus.FORBIDDEN, "Tenant is inactive");
         }
 
+        exposeToRequest(tenant);
+        return tenant;
+    }
+
+    /**
+     * Drop a tenant from the slug cache, under whatever slug it was cached.
+     */
+    public void evict(Long tenantId) {
+        slugCache.values().removeIf(cached -> tenantId.equals(cached.tenant().getId()));
+    }
+
+    private Tenant findBySlug(String slug) {
+        if (cacheTtlNanos <= 0) {
+            return loadBySlug(slug);
+        }
+
+        long now = System.nanoTime();
+        CachedTenant cached = slugCache.get(slug);
+        if (cached != null && now - cached.loadedAt() < cacheTtlNanos) {
+            cacheHits.increment();
+            return cached.tenant();
+        }
+        cacheMisses.increment();
+
+        Tenant tenant = loadBySlug(slug);
+        if (slugCache.size() >= MAX_CACHED_TENANTS) {
+            slugCache.clear();
+        }
+        slugCache.put(slug, new CachedTenant(tenant, now));
         return tenant;
     }
+
+    private static void exposeToRequest(Tenant tenant) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(TENANT_ATTRIBUTE, tenant, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("tenant.cache.requests", cacheHits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("Tenant slug cache lookups")
+                .register(registry);
+        FunctionCounter.builder("tenant.cache.requests", cacheMisses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("Tenant slug cache lookups")
+                .register(registry);
+        Gauge.builder("tenant.cache.size", slugCache, Map::size)
+                .description("Tenants currently held in the slug cache")
+                .register(registry);
+    }
+
+    private Tenant loadBySlug(String slug) {
+        return tenantRepository.findBySlug(slug)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "Tenant not found"));
+    }
+
+    private record CachedTenant(Tenant tenant, long loadedAt) {
+    }
 }
@@ -0,0 +1,56 @@
+-- Columns and tables added since the V1 baseline, before Flyway managed the
+-- schema. "if not exists" because a database that ran ddl-auto=update against
+-- newer entities may already have some of them.
+
+-- Catalog version, advanced by every catalog write
+alter table tenants add column if not exists catalog_version bigint;
+
+-- Content hash of the product image (ImageStorageService)
+alter table products add column if not exists image_hash varchar(64);
+
+-- Optimistic locking, exposed as the ETag. Adding a column with a constant
+-- default does not rewrite the table.
+alter table products add column if not exists version bigint default 0 not null;
+alter table product_variants add column if not exists version bigint default 0 not null;
+
+-- Units available for reservation; null means stock is not tracked
+alter table product_variants add column if not exists stock integer;
+
+-- Product names are unique per tenant. Fails if a tenant already has
+-- duplicate names; those have to be resolved by hand first.
+do $$
+begin
+    if not exists (select 1 from pg_constraint where conname = 'uk_products_tenant_name') then
+        alter table products add constraint uk_products_tenant_name unique (tenant_id, name);
+    end if;
+end;
+$$;
+
+-- Stock held for buyers (StockReservationService)
+create table if not exists stock_reservations (
+    id uuid not null,
+    tenant_id bigint not null,
+    variant_id bigint not null,
+    quantity integer not null,
+    status varchar(16) not null check (status in ('HELD','CONFIRMED','RELEASED','EXPIRED')),
+    created_at timestamp(6) with time zone not null,
+    expires_at timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+-- Admin changes to products and variants (AuditLogWriter)
+create table if not exists audit_log (
+    id bigint generated by default as identity,
+    tenant_id bigint not null,
+    admin_id bigint,
+    admin_username varchar(255),
+    entity_type varchar(16) not null,
+    entity_id bigint,
+    action varchar(16) not null,
+    before_value text,
+    after_value text,
+    occurred_at timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+create index if not exists idx_audit_log_tenant_id_id on audit_log (tenant_id, id);
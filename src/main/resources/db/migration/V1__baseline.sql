@@ -0,0 +1,47 @@
+-- Schema as previously created by spring.jpa.hibernate.ddl-auto=update.
+-- Databases that already have these tables are baselined at this version
+-- (spring.flyway.baseline-on-migrate) and start at V1_1. Hibernate named the
+-- slug constraint itself; migrations must not refer to it by name.
+
+create table tenants (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    slug varchar(255) not null,
+    active boolean not null,
+    primary key (id),
+    constraint uk_tenants_slug unique (slug)
+);
+
+create table admins (
+    id bigint generated by default as identity,
+    username varchar(255) not null,
+    password_hash varchar(255) not null,
+    active boolean not null,
+    created_at timestamp(6),
+    tenant_id bigint not null,
+    primary key (id)
+);
+
+create table products (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    tenant_id bigint not null,
+    image_name varchar(255),
+    category varchar(255),
+    description varchar(255),
+    price numeric(38,2),
+    unit varchar(255),
+    active boolean,
+    primary key (id)
+);
+
+create table product_variants (
+    id bigint generated by default as identity,
+    product_id bigint not null,
+    tenant_id bigint not null,
+    quantity_value numeric(38,2) not null,
+    quantity_unit varchar(255) not null,
+    price numeric(38,2) not null,
+    active boolean not null,
+    primary key (id)
+);
@@ -0,0 +1,26 @@
+-- Every lookup is scoped to a tenant, so indexes lead with tenant_id.
+-- Slug lookups use uk_tenants_slug (or the equivalent constraint Hibernate
+-- created), products by name use uk_products_tenant_name and lookups by id
+-- use the primary keys. "if not exists" because a database that ran
+-- ddl-auto=update against the current entities may already have some of them.
+
+-- Login: findByUsernameAndTenantId[AndActiveTrue]. Fails if a tenant already
+-- has duplicate usernames; those have to be resolved by hand first.
+create unique index if not exists uk_admins_tenant_username on admins (tenant_id, username);
+
+-- Storefront catalog: active products of a tenant in id order
+create index if not exists idx_products_tenant_active on products (tenant_id, id) where active = true;
+
+-- Variants of given products (admin variant list, product batch lookups)
+create index if not exists idx_product_variants_tenant_product on product_variants (tenant_id, product_id, id);
+
+-- Storefront catalog: active variants of a tenant in product order
+create index if not exists idx_product_variants_tenant_active on product_variants (tenant_id, product_id, id)
+    where active = true;
+
+-- Expiry sweep: held reservations past their expiry. Not partial, because the
+-- sweep binds the status as a parameter and a generic plan could not use it.
+create index if not exists idx_stock_reservations_status_expires on stock_reservations (status, expires_at);
+
+-- Audit history of one entity, newest first
+create index if not exists idx_audit_log_tenant_entity on audit_log (tenant_id, entity_type, entity_id, id);
@@ -0,0 +1,101 @@
+-- Opt-in hash partitioning of the catalog tables by tenant_id. This migration
+-- only installs the procedures; nothing is converted until
+-- partition_catalog_tables is called, on startup when
+-- app.schema.tenant-partitions (DB_TENANT_PARTITIONS) is above zero, or by hand:
+--
+--   call partition_catalog_tables(16);
+--
+-- The conversion copies every row under an ACCESS EXCLUSIVE lock, so on a
+-- large database run it in a maintenance window. Calling it again on
+-- partitioned tables does nothing.
+
+-- Replace table_name by a table of the same columns, hash-partitioned on
+-- tenant_id into the given number of partitions (table_name_p0, _p1, ...).
+--
+-- IDENTITY columns cannot be declared on a partitioned table before
+-- PostgreSQL 17, so id becomes a column defaulting to a sequence that carries
+-- on from the highest existing id. The primary key becomes (tenant_id, id);
+-- unique constraints and indexes are recreated as they were, so unique ones
+-- must already include tenant_id. Foreign keys are not supported.
+--
+-- Rows are copied in (tenant_id, id) order, so each tenant's existing rows end
+-- up on adjacent pages of its partition instead of interleaved with every
+-- other tenant's.
+create or replace procedure partition_by_tenant(table_name text, partitions integer)
+language plpgsql
+as $$
+declare
+    old_table text := table_name || '_unpartitioned';
+    new_sequence text := table_name || '_partitioned_id_seq';
+    constraint_names text[];
+    constraint_definitions text[];
+    index_definitions text[];
+    max_id bigint;
+    i integer;
+begin
+    if partitions < 1 then
+        raise exception 'partitions must be at least 1, was %', partitions;
+    end if;
+    if (select relkind from pg_class where oid = to_regclass(table_name)) = 'p' then
+        raise notice '% is already partitioned', table_name;
+        return;
+    end if;
+    if exists (select 1 from pg_constraint
+               where contype = 'f' and (conrelid = to_regclass(table_name) or confrelid = to_regclass(table_name))) then
+        raise exception 'drop the foreign keys on % before partitioning it', table_name;
+    end if;
+
+    execute format('lock table %I in access exclusive mode', table_name);
+
+    select coalesce(array_agg(conname order by conname), '{}'),
+           coalesce(array_agg(pg_get_constraintdef(oid) order by conname), '{}')
+      into constraint_names, constraint_definitions
+      from pg_constraint
+     where conrelid = to_regclass(table_name) and contype = 'u';
+    select coalesce(array_agg(pg_get_indexdef(indexrelid) order by indexrelid), '{}')
+      into index_definitions
+      from pg_index
+     where indrelid = to_regclass(table_name)
+       and not exists (select 1 from pg_constraint where conindid = pg_index.indexrelid);
+
+    execute format('alter table %I rename to %I', table_name, old_table);
+    execute format('create table %I (like %I including defaults including constraints including storage) '
+                   'partition by hash (tenant_id)', table_name, old_table);
+    for i in 0 .. partitions - 1 loop
+        execute format('create table %I partition of %I for values with (modulus %s, remainder %s)',
+                       table_name || '_p' || i, table_name, partitions, i);
+    end loop;
+
+    execute format('select coalesce(max(id), 0) from %I', old_table) into max_id;
+    execute format('create sequence %I', new_sequence);
+    perform setval(new_sequence, greatest(max_id, 1), max_id > 0);
+    execute format('alter table %I alter column id set default nextval(%L)', table_name, new_sequence);
+
+    execute format('insert into %I select * from %I order by tenant_id, id', table_name, old_table);
+    -- Also drops the old identity sequence, whose name is reused below
+    execute format('drop table %I', old_table);
+    execute format('alter sequence %I rename to %I', new_sequence, table_name || '_id_seq');
+    execute format('alter sequence %I owned by %I.id', table_name || '_id_seq', table_name);
+
+    execute format('alter table %I add constraint %I primary key (tenant_id, id)', table_name, table_name || '_pkey');
+    for i in 1 .. coalesce(array_length(constraint_names, 1), 0) loop
+        execute format('alter table %I add constraint %I %s', table_name, constraint_names[i],
+                       constraint_definitions[i]);
+    end loop;
+    for i in 1 .. coalesce(array_length(index_definitions, 1), 0) loop
+        execute regexp_replace(index_definitions[i], ' ON \S+ USING ', format(' ON %I USING ', table_name));
+    end loop;
+
+    execute format('analyze %I', table_name);
+end;
+$$;
+
+-- Partition products and product_variants by tenant in one transaction.
+create or replace procedure partition_catalog_tables(partitions integer)
+language plpgsql
+as $$
+begin
+    call partition_by_tenant('products', partitions);
+    call partition_by_tenant('product_variants', partitions);
+end;
+$$;
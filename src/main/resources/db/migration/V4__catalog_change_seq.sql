@@ -0,0 +1,30 @@
+-- Delta sync (GET /api/{tenantSlug}/catalog/changes). Every product and
+-- variant write stores the tenant catalog version it was assigned in
+-- change_seq, and a hard delete leaves a tombstone with its version.
+-- Adding a column with a constant default does not rewrite the table.
+
+alter table products add column change_seq bigint default 0 not null;
+alter table product_variants add column change_seq bigint default 0 not null;
+
+-- Changes after a version are complete only from the tenant's delta horizon
+-- on; older clients get the full catalog. Nothing before this migration was
+-- recorded, so the horizon starts at the current version.
+alter table tenants add column delta_horizon bigint default 0 not null;
+update tenants set delta_horizon = coalesce(catalog_version, 0);
+
+create index idx_products_tenant_change_seq on products (tenant_id, change_seq);
+create index idx_product_variants_tenant_change_seq on product_variants (tenant_id, change_seq);
+
+create table catalog_tombstones (
+    id bigint generated by default as identity,
+    tenant_id bigint not null,
+    entity_type varchar(16) not null,
+    entity_id bigint not null,
+    change_seq bigint not null,
+    deleted_at timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+create index idx_catalog_tombstones_tenant_change_seq on catalog_tombstones (tenant_id, change_seq);
+-- Retention purge
+create index idx_catalog_tombstones_deleted_at on catalog_tombstones (deleted_at);
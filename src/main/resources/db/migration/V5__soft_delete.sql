@@ -0,0 +1,31 @@
+-- Soft delete for products and variants. A deleted row keeps its data with
+-- deleted_at set (and active = false) until CatalogArchiveService moves it to
+-- the archive tables; the entities never load deleted rows.
+
+alter table products add column deleted_at timestamp(6) with time zone;
+alter table product_variants add column deleted_at timestamp(6) with time zone;
+
+-- Variants left behind by products deleted before this migration
+update product_variants v set active = false, deleted_at = now()
+ where not exists (select 1 from products p where p.tenant_id = v.tenant_id and p.id = v.product_id);
+
+-- Names only need to be unique among products that are not deleted
+alter table products drop constraint uk_products_tenant_name;
+create unique index uk_products_tenant_name on products (tenant_id, name) where deleted_at is null;
+
+-- Archive job: tenants with rows to archive, then each tenant's rows deleted
+-- longest ago
+create index idx_products_tenant_deleted_at on products (tenant_id, deleted_at) where deleted_at is not null;
+create index idx_product_variants_tenant_deleted_at on product_variants (tenant_id, deleted_at)
+    where deleted_at is not null;
+
+-- Same columns as the live tables plus archived_at. Columns added to products
+-- or product_variants must be added here as well, and to ARCHIVE_COLUMNS in
+-- ProductRepository or ProductVariantRepository.
+create table products_archive (like products);
+alter table products_archive add column archived_at timestamp(6) with time zone not null;
+alter table products_archive add primary key (tenant_id, id);
+
+create table product_variants_archive (like product_variants);
+alter table product_variants_archive add column archived_at timestamp(6) with time zone not null;
+alter table product_variants_archive add primary key (tenant_id, id);
@@ -0,0 +1,70 @@
+package com.tech.enterprise.audit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.tech.enterprise.audit.AuditEvent.Action;
+import com.tech.enterprise.audit.AuditEvent.EntityType;
+
+/**
+ * Events that overflow the audit queue are written on the committing thread
+ * after its transaction has committed; they must still reach audit_log. The
+ * pool hands out connections with autocommit off, the setting under which a
+ * write on the committed transaction's connection is rolled back.
+ * Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "app.audit.queue-capacity=1",
+        "app.audit.flush-interval=PT1H",
+        "app.audit.overflow-policy=CALLER_RUNS",
+        "spring.datasource.hikari.auto-commit=false",
+        "spring.jpa.properties.hibernate.connection.provider_disables_autocommit=true" })
+@Testcontainers(disabledWithoutDocker = true)
+class AuditLogWriterTest {
+
+    private static final int EVENTS = 5;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16");
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void overflowWritesAreCommitted() {
+        String slug = "audit-" + UUID.randomUUID();
+        long tenantId = jdbcTemplate.queryForObject(
+                "insert into tenants (name, slug, active) values (?, ?, true) returning id", Long.class, slug, slug);
+
+        // One event fills the queue; the rest run on this thread after commit
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int i = 0; i < EVENTS; i++) {
+                eventPublisher.publishEvent(new AuditEvent(tenantId, 1L, "admin", EntityType.PRODUCT, (long) i,
+                        Action.UPDATE, "{}", "{}", Instant.now()));
+            }
+        });
+
+        long rows = jdbcTemplate.queryForObject("select count(*) from audit_log where tenant_id = ?", Long.class,
+                tenantId);
+        assertTrue(rows >= EVENTS - 1, () -> "Only " + rows + " of the overflowing audit events were stored");
+    }
+}
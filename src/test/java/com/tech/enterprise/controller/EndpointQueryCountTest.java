@@ -0,0 +1,109 @@
+package com.tech.enterprise.controller;
+
+import static com.tech.enterprise.support.QueryCountAssertions.assertQueryCount;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Exact statement counts for the public product reads and the admin session
+ * endpoints. The counts include the tenant lookup, since the slug cache is
+ * off by default. Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = "app.diagnostics.query-headers.enabled=true")
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+class EndpointQueryCountTest {
+
+    private static final String PASSWORD = "secret";
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16");
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private String slug;
+    private long productId;
+    private long otherProductId;
+
+    @BeforeEach
+    void seed() {
+        slug = "counts-" + UUID.randomUUID();
+        long tenantId = jdbcTemplate.queryForObject(
+                "insert into tenants (name, slug, active) values (?, ?, true) returning id", Long.class, slug, slug);
+        productId = insertProduct(tenantId, "Rice");
+        otherProductId = insertProduct(tenantId, "Lentils");
+        insertProduct(tenantId, "Salt");
+        jdbcTemplate.update("insert into admins (username, password_hash, active, tenant_id) values ('admin', ?, true, ?)",
+                passwordEncoder.encode(PASSWORD), tenantId);
+    }
+
+    @Test
+    void productReads() throws Exception {
+        assertQueryCount(2, mockMvc, get("/api/{slug}/products", slug))
+                .andExpect(status().isOk());
+        assertQueryCount(2, mockMvc, get("/api/{slug}/products/{id}", slug, productId))
+                .andExpect(status().isOk());
+        assertQueryCount(2, mockMvc, get("/api/{slug}/products/batch", slug)
+                .param("ids", productId + "," + otherProductId))
+                .andExpect(status().isOk());
+        // Product check plus its variants
+        assertQueryCount(3, mockMvc, get("/api/{slug}/products/{id}/variants", slug, productId))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void queryCountHeaderMatchesStatements() throws Exception {
+        mockMvc.perform(get("/api/{slug}/products", slug))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Query-Count", "2"));
+    }
+
+    @Test
+    void adminSession() throws Exception {
+        MockHttpSession session = (MockHttpSession) assertQueryCount(2, mockMvc,
+                post("/api/{slug}/admins/login", slug)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"admin\",\"password\":\"" + PASSWORD + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getRequest().getSession(false);
+
+        assertQueryCount(1, mockMvc, get("/api/{slug}/admins/me", slug).session(session))
+                .andExpect(status().isOk());
+        assertQueryCount(0, mockMvc, post("/api/{slug}/admins/logout", slug).session(session))
+                .andExpect(status().isOk());
+    }
+
+    private long insertProduct(long tenantId, String name) {
+        long id = jdbcTemplate.queryForObject("insert into products (name, tenant_id, price, unit, active) "
+                + "values (?, ?, 10, 'kg', true) returning id", Long.class, name, tenantId);
+        jdbcTemplate.update("insert into product_variants "
+                + "(product_id, tenant_id, quantity_value, quantity_unit, price, active, stock) "
+                + "values (?, ?, 1, 'kg', 10, true, 5), (?, ?, 5, 'kg', 45, true, 5)", id, tenantId, id, tenantId);
+        return id;
+    }
+}
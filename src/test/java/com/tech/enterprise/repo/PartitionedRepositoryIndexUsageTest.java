@@ -0,0 +1,12 @@
+package com.tech.enterprise.repo;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * RepositoryIndexUsageTest with products and product_variants hash-partitioned
+ * by tenant after seeding: every statement must still use indexes and be
+ * pruned to one partition of each table.
+ */
+@TestPropertySource(properties = "app.schema.tenant-partitions=8")
+class PartitionedRepositoryIndexUsageTest extends RepositoryIndexUsageTest {
+}
@@ -0,0 +1,359 @@
+package com.tech.enterprise.repo;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tech.enterprise.model.StockReservation.Status;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Runs every repository query against a seeded PostgreSQL schema built by the
+ * Flyway migrations and checks its EXPLAIN plan: no sequential scans and at
+ * least one index used.
+ *
+ * The statements are captured as Hibernate sends them (SQL and bind values)
+ * and explained with the same values, so the plans are the ones production
+ * would get. The dataset is sized so that a sequential scan loses to a usable
+ * index: 5000 tenants, 100k products, 300k variants, 100k reservations and
+ * audit rows, 300k tombstones, with one product in twenty (and its variants)
+ * deleted over the last 60 days. Skipped when Docker is not available.
+ *
+ * With app.schema.tenant-partitions set (PartitionedRepositoryIndexUsageTest)
+ * the seeded catalog tables are then converted to hash partitions, and each
+ * tenant-scoped statement must also be pruned to a single partition of each
+ * table.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RepositoryIndexUsageTest {
+
+    private static final int TENANTS = 5000;
+    private static final long TENANT = 4242;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16");
+
+    private static final List<QueryInfo> captured = new ArrayList<>();
+    private static volatile boolean capturing;
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TenantRepository tenantRepository;
+    @Autowired
+    private AdminRepository adminRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductVariantRepository variantRepository;
+    @Autowired
+    private StockReservationRepository reservationRepository;
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+    @Autowired
+    private CatalogTombstoneRepository tombstoneRepository;
+
+    @Value("${app.schema.tenant-partitions:0}")
+    private int tenantPartitions;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private long productId;
+    private long variantId;
+    private UUID reservationId;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("insert into tenants (name, slug, active) "
+                + "select 'Tenant ' || t, 'tenant-' || t, true from generate_series(1, ?) t", TENANTS);
+        jdbcTemplate.update("insert into admins (username, password_hash, active, tenant_id) "
+                + "select 'admin' || a, 'x', a = 1, t from generate_series(1, ?) t, generate_series(1, 2) a",
+                TENANTS);
+        jdbcTemplate.update("insert into products "
+                + "(name, tenant_id, category, price, unit, active, version, change_seq) "
+                + "select 'Product ' || p, t, 'cat-' || (p % 5), 10 + p, 'kg', p % 10 <> 0, 0, 4 * p "
+                + "from generate_series(1, ?) t, generate_series(1, 20) p", TENANTS);
+        jdbcTemplate.update("insert into product_variants "
+                + "(product_id, tenant_id, quantity_value, quantity_unit, price, active, stock, version, change_seq) "
+                + "select p.id, p.tenant_id, v, 'kg', 5 * v, v <> 3, 100, 0, p.change_seq + v "
+                + "from products p, generate_series(1, 3) v");
+        // One product in twenty deleted with its variants, and some other
+        // inactive variants deleted on their own, over the last 60 days
+        jdbcTemplate.update("update products set deleted_at = now() - (tenant_id % 60) * interval '1 day' "
+                + "where name = 'Product 20'");
+        jdbcTemplate.update("update product_variants v set deleted_at = p.deleted_at, active = false "
+                + "from products p where p.tenant_id = v.tenant_id and p.id = v.product_id and p.deleted_at is not null");
+        jdbcTemplate.update("update product_variants set deleted_at = now() - (id % 60) * interval '1 day' "
+                + "where not active and deleted_at is null and id % 20 = 0");
+        // One deleted product per tenant and day over the last 60 days
+        jdbcTemplate.update("insert into catalog_tombstones (tenant_id, entity_type, entity_id, change_seq, deleted_at) "
+                + "select t, 'PRODUCT', 1000000::bigint * t + d, 100 + d, now() - (60 - d) * interval '1 day' "
+                + "from generate_series(1, ?) t, generate_series(1, 60) d", TENANTS);
+        // 1% held, the rest settled long ago
+        jdbcTemplate.update("insert into stock_reservations "
+                + "(id, tenant_id, variant_id, quantity, status, created_at, expires_at) "
+                + "select gen_random_uuid(), v.tenant_id, v.id, 1, "
+                + "case when v.id % 100 = 0 then 'HELD' else 'CONFIRMED' end, "
+                + "now() - interval '1 day', now() - interval '1 day' + (v.id % 1440) * interval '1 minute' "
+                + "from product_variants v where v.id % 3 = 0");
+        jdbcTemplate.update("insert into audit_log (tenant_id, entity_type, entity_id, action, occurred_at) "
+                + "select p.tenant_id, 'PRODUCT', p.id, 'UPDATED', now() from products p");
+        if (tenantPartitions > 0) {
+            jdbcTemplate.update("call partition_catalog_tables(?)", tenantPartitions);
+        }
+        jdbcTemplate.execute("analyze");
+
+        productId = jdbcTemplate.queryForObject(
+                "select min(id) from products where tenant_id = ? and active", Long.class, TENANT);
+        variantId = jdbcTemplate.queryForObject(
+                "select min(id) from product_variants where product_id = ?", Long.class, productId);
+        reservationId = jdbcTemplate.queryForObject(
+                "select id from stock_reservations where tenant_id = ? limit 1", UUID.class, TENANT);
+    }
+
+    @Test
+    void tenantQueriesUseIndexes() throws Exception {
+        assertUsesIndexes(() -> tenantRepository.findBySlug("tenant-" + TENANT));
+        assertUsesIndexes(() -> tenantRepository.findBySlugAndActiveTrue("tenant-" + TENANT));
+        assertUsesIndexes(() -> tenantRepository.findCatalogVersionById(TENANT));
+        assertUsesIndexes(() -> tenantRepository.incrementCatalogVersion(TENANT, 1));
+        assertUsesIndexes(() -> tenantRepository.findDeltaHorizonById(TENANT));
+        assertUsesIndexes(() -> tenantRepository.raiseDeltaHorizon(TENANT, 100));
+    }
+
+    @Test
+    void adminQueriesUseIndexes() throws Exception {
+        assertUsesIndexes(() -> adminRepository.findByUsernameAndTenantIdAndActiveTrue("admin1", TENANT));
+        assertUsesIndexes(() -> adminRepository.findByUsernameAndTenantId("admin2", TENANT));
+    }
+
+    @Test
+    void productQueriesUseIndexes() throws Exception {
+        assertUsesIndexes(() -> productRepository.findByIdAndTenantId(productId, TENANT));
+        assertUsesIndexes(() -> productRepository.findByIdInAndTenantId(List.of(productId, productId + 1), TENANT));
+        assertUsesIndexes(() -> productRepository.existsByIdAndTenantId(productId, TENANT));
+        assertUsesIndexes(() -> productRepository.findByIdAndTenantIdAndActiveTrue(productId, TENANT));
+        assertUsesIndexes(() -> productRepository.findByIdInAndTenantIdAndActiveTrue(
+                List.of(productId, productId + 1), TENANT));
+        assertUsesIndexes(() -> productRepository.existsByIdAndTenantIdAndActiveTrue(productId, TENANT));
+        assertUsesIndexes(() -> productRepository.findViewsByTenantId(TENANT));
+        assertUsesIndexes(() -> productRepository.findActiveViewsByTenantId(TENANT));
+        assertUsesIndexes(() -> productRepository.findViewsChangedSince(TENANT, 72, Limit.of(1001)));
+        assertUsesIndexes(() -> productRepository.patch(productId, TENANT, 0L, 1L, null, "renamed", null,
+                BigDecimal.ONE, null, null));
+    }
+
+    @Test
+    void archiveQueriesUseIndexes() throws Exception {
+        Instant cutoff = Instant.now().minus(Duration.ofDays(30));
+        // Finding the tenants to archive is not scoped to a tenant, so it
+        // reads every partition
+        assertUsesIndexes(() -> productRepository.findTenantIdsDeletedBefore(cutoff), false);
+        assertUsesIndexes(() -> variantRepository.findTenantIdsDeletedBefore(cutoff), false);
+        assertUsesIndexes(() -> productRepository.archiveDeletedBefore(TENANT, cutoff, 500));
+        assertUsesIndexes(() -> variantRepository.archiveDeletedBefore(TENANT, cutoff, 500));
+    }
+
+    @Test
+    void variantQueriesUseIndexes() throws Exception {
+        assertUsesIndexes(() -> variantRepository.findByIdAndTenantId(variantId, TENANT));
+        assertUsesIndexes(() -> variantRepository.findByIdInAndTenantId(List.of(variantId, variantId + 1), TENANT));
+        assertUsesIndexes(() -> variantRepository.findPurchasableByIdInAndTenantId(
+                List.of(variantId, variantId + 1), TENANT));
+        assertUsesIndexes(() -> variantRepository.findByProductIdInAndTenantId(
+                List.of(productId, productId + 1), TENANT));
+        assertUsesIndexes(() -> variantRepository.findByProductIdInAndTenantIdAndActiveTrue(
+                List.of(productId, productId + 1), TENANT));
+        assertUsesIndexes(() -> variantRepository.findViewsByProductIdAndTenantId(productId, TENANT));
+        assertUsesIndexes(() -> variantRepository.findActiveViewsByProductIdAndTenantId(productId, TENANT));
+        assertUsesIndexes(() -> variantRepository.findActiveViewsByTenantId(TENANT));
+        assertUsesIndexes(() -> variantRepository.findViewsChangedSince(TENANT, 72, Limit.of(1001)));
+        assertUsesIndexes(() -> variantRepository.tryReserveStock(variantId, TENANT, 1));
+        assertUsesIndexes(() -> variantRepository.restoreStock(variantId, TENANT, 1));
+        assertUsesIndexes(() -> variantRepository.adjustStock(variantId, TENANT, 1, 1L));
+        assertUsesIndexes(() -> variantRepository.markChangedByProductId(productId, TENANT, 1L));
+        assertUsesIndexes(() -> variantRepository.softDeleteByProductId(productId, TENANT, 1L, Instant.now()));
+    }
+
+    @Test
+    void reservationQueriesUseIndexes() throws Exception {
+        assertUsesIndexes(() -> reservationRepository.findByIdAndTenantId(reservationId, TENANT));
+        assertUsesIndexes(() -> reservationRepository.findTop500ByStatusAndExpiresAtBefore(Status.HELD,
+                Instant.now()));
+        assertUsesIndexes(() -> reservationRepository.transition(reservationId, TENANT, Status.HELD,
+                Status.CONFIRMED));
+        assertUsesIndexes(() -> reservationRepository.transitionIfLive(reservationId, TENANT, Status.HELD,
+                Status.CONFIRMED, Instant.now()));
+    }
+
+    @Test
+    void tombstoneQueriesUseIndexes() throws Exception {
+        Instant cutoff = Instant.now().minus(Duration.ofDays(59));
+        assertUsesIndexes(() -> tombstoneRepository.findChangedSince(TENANT, 150, Limit.of(1001)));
+        assertUsesIndexes(() -> tombstoneRepository.findHorizonsBefore(cutoff));
+        assertUsesIndexes(() -> tombstoneRepository.deleteDeletedBefore(cutoff));
+    }
+
+    @Test
+    void auditQueriesUseIndexes() throws Exception {
+        PageRequest page = PageRequest.of(0, 50, Sort.by(Sort.Direction.DESC, "id"));
+        assertUsesIndexes(() -> auditLogRepository.findByTenantId(TENANT, page));
+        assertUsesIndexes(() -> auditLogRepository.findByTenantIdAndEntityTypeAndEntityId(TENANT, "PRODUCT",
+                productId, page));
+    }
+
+    private void assertUsesIndexes(Runnable repositoryCall) throws Exception {
+        assertUsesIndexes(repositoryCall, true);
+    }
+
+    /**
+     * Run the repository call in a rolled-back transaction and check the plan
+     * of every statement it issued.
+     *
+     * @param tenantScoped Also require pruning to one partition per table
+     */
+    private void assertUsesIndexes(Runnable repositoryCall, boolean tenantScoped) throws Exception {
+        List<QueryInfo> queries;
+        synchronized (captured) {
+            captured.clear();
+            capturing = true;
+            try {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    repositoryCall.run();
+                    status.setRollbackOnly();
+                });
+            } finally {
+                capturing = false;
+            }
+            queries = List.copyOf(captured);
+        }
+        assertFalse(queries.isEmpty(), "No statement was executed");
+
+        for (QueryInfo query : queries) {
+            JsonNode plan = explain(query);
+            List<String> scans = new ArrayList<>();
+            collectScans(plan.get(0).get("Plan"), scans);
+            String message = query.getQuery() + "\n" + plan.toPrettyString();
+            assertTrue(scans.stream().noneMatch(scan -> scan.startsWith("Seq Scan")), message);
+            assertTrue(scans.stream().anyMatch(scan -> scan.contains("Index")), message);
+            if (tenantPartitions > 0 && tenantScoped) {
+                for (String table : List.of("products", "product_variants")) {
+                    long partitions = scans.stream()
+                            .map(scan -> scan.substring(scan.indexOf(" on ") + 4).split(" ")[0])
+                            .filter(relation -> relation.matches(table + "_p\\d+"))
+                            .distinct()
+                            .count();
+                    assertTrue(partitions <= 1, "Scans " + partitions + " partitions of " + table + ": " + message);
+                }
+            }
+        }
+    }
+
+    private JsonNode explain(QueryInfo query) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement("explain (format json) " + query.getQuery())) {
+            for (ParameterSetOperation operation : query.getParametersList().get(0)) {
+                operation.getMethod().invoke(statement, operation.getArgs());
+            }
+            try (ResultSet result = statement.executeQuery()) {
+                result.next();
+                return objectMapper.readTree(result.getString(1));
+            }
+        }
+    }
+
+    private static void collectScans(JsonNode node, List<String> scans) {
+        String type = node.get("Node Type").asText();
+        if (type.endsWith("Scan")) {
+            scans.add(type + " on " + node.path("Relation Name").asText()
+                    + (node.has("Index Name") ? " using " + node.get("Index Name").asText() : ""));
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectScans(child, scans);
+        }
+    }
+
+    @TestConfiguration
+    static class CaptureConfig {
+
+        /**
+         * Records statements issued while capturing is on.
+         */
+        @Bean
+        static BeanPostProcessor statementCapturingPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource) {
+                        return ProxyDataSourceBuilder.create(dataSource)
+                                .listener(new QueryExecutionListener() {
+                                    @Override
+                                    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                                    }
+
+                                    @Override
+                                    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                                        if (capturing) {
+                                            captured.addAll(queryInfoList);
+                                        }
+                                    }
+                                })
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.tech.enterprise.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.web.server.ResponseStatusException;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.tech.enterprise.catalog.CatalogChangeEvent;
+import com.tech.enterprise.catalog.CatalogChangeEvent.Action;
+import com.tech.enterprise.catalog.CatalogChangeEvent.EntityType;
+import com.tech.enterprise.dto.CatalogDelta;
+import com.tech.enterprise.dto.ProductLookup;
+import com.tech.enterprise.dto.ProductPatch;
+import com.tech.enterprise.dto.ProductView;
+import com.tech.enterprise.dto.VariantView;
+import com.tech.enterprise.model.Product;
+
+/**
+ * Product lifecycle against PostgreSQL: creating ignores server-managed
+ * fields, deleting a product and its variants reaches catalog deltas, frees
+ * its name and is archived after the retention, a reactivated product brings
+ * its variants back to deltas, and inactive products stay out of public
+ * reads. Skipped when Docker is not available.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+@RecordApplicationEvents
+class ProductServiceTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16");
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private CatalogService catalogService;
+    @Autowired
+    private CatalogArchiveService archiveService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ApplicationEvents events;
+
+    private long tenantId;
+    private long productId;
+    private long variantId;
+    private long otherVariantId;
+
+    @BeforeEach
+    void seed() {
+        String slug = "products-" + UUID.randomUUID();
+        tenantId = jdbcTemplate.queryForObject(
+                "insert into tenants (name, slug, active) values (?, ?, true) returning id", Long.class, slug, slug);
+        productId = productService.saveProduct(product("Rice"), tenantId).getId();
+        variantId = insertVariant(1);
+        otherVariantId = insertVariant(5);
+    }
+
+    @Test
+    void deleteReachesDeltasForProductAndVariants() {
+        long before = catalogVersion();
+
+        productService.deleteProduct(productId, tenantId);
+
+        // One stream event: they all share the delete's version, the event id
+        List<CatalogChangeEvent> deleted = events.stream(CatalogChangeEvent.class)
+                .filter(event -> event.action() == Action.DELETED)
+                .toList();
+        assertEquals(1, deleted.size());
+        assertEquals(EntityType.PRODUCT, deleted.get(0).entity());
+        assertEquals(productId, deleted.get(0).id());
+
+        CatalogDelta delta = catalogService.getChanges(tenantId, before);
+        assertFalse(delta.full());
+        assertEquals(List.of(productId), delta.removedProductIds());
+        assertEquals(Set.of(variantId, otherVariantId), Set.copyOf(delta.removedVariantIds()));
+        assertTrue(delta.products().isEmpty());
+        assertTrue(delta.variants().isEmpty());
+        // Nothing before the delete is reported as removed
+        assertTrue(catalogService.getChanges(tenantId, delta.version()).removedVariantIds().isEmpty());
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> productService.getProductById(productId, tenantId));
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatusCode());
+    }
+
+    @Test
+    void reactivatedProductComesBackWithItsVariants() {
+        ProductPatch deactivate = new ProductPatch();
+        deactivate.setActive(false);
+        productService.patchProduct(productId, deactivate, null, tenantId);
+        long deactivatedAt = catalogVersion();
+
+        // By PATCH
+        ProductPatch activate = new ProductPatch();
+        activate.setActive(true);
+        productService.patchProduct(productId, activate, null, tenantId);
+        assertComesBackWithVariants(catalogService.getChanges(tenantId, deactivatedAt));
+
+        // By PUT
+        productService.patchProduct(productId, deactivate, null, tenantId);
+        deactivatedAt = catalogVersion();
+        Product details = product("Rice");
+        details.setActive(true);
+        productService.updateProduct(productId, details, null, tenantId);
+        assertComesBackWithVariants(catalogService.getChanges(tenantId, deactivatedAt));
+    }
+
+    @Test
+    void deletedProductsNameCanBeReused() {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> productService.saveProduct(product("Rice"), tenantId));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+
+        productService.deleteProduct(productId, tenantId);
+        Product reused = productService.saveProduct(product("Rice"), tenantId);
+
+        assertEquals("Rice", productService.getActiveProductById(reused.getId(), tenantId).getName());
+    }
+
+    @Test
+    void createIgnoresServerManagedFields() {
+        Product bread = product("Bread");
+        bread.setId(productId);
+        bread.setDeletedAt(Instant.now());
+        bread.setImageHash("0".repeat(64));
+
+        Product saved = productService.saveProduct(bread, tenantId);
+
+        assertNotEquals(productId, saved.getId());
+        assertNull(productService.getActiveProductById(saved.getId(), tenantId).getImageHash());
+        assertEquals("Rice", productService.getActiveProductById(productId, tenantId).getName());
+    }
+
+    @Test
+    void deletedProductsAreArchivedWithTheirVariants() {
+        productService.deleteProduct(productId, tenantId);
+        // Past the 30 day retention; deleted rows are only visible to native SQL
+        jdbcTemplate.update("update products set deleted_at = now() - interval '31 days' where id = ?", productId);
+
+        archiveService.archiveDeleted();
+
+        assertEquals(0, count("select count(*) from products where id = ?", productId));
+        assertEquals(0, count("select count(*) from product_variants where product_id = ?", productId));
+        assertEquals(1, count("select count(*) from products_archive where id = ?", productId));
+        assertEquals(2, count("select count(*) from product_variants_archive where product_id = ?", productId));
+    }
+
+    @Test
+    void inactiveProductsAreOnlyReadByAdmins() {
+        jdbcTemplate.update("update product_variants set active = false where id = ?", otherVariantId);
+
+        ProductLookup visible = productService.lookupProducts(List.of(productId), true, false, tenantId).get(0);
+        assertTrue(visible.getFound());
+        assertEquals(1, visible.getVariants().size());
+        assertEquals(variantId, visible.getVariants().get(0).getId());
+
+        jdbcTemplate.update("update products set active = false where id = ?", productId);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> productService.getActiveProductById(productId, tenantId));
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatusCode());
+        assertFalse(productService.lookupProducts(List.of(productId), true, false, tenantId).get(0).getFound());
+
+        ProductLookup admin = productService.lookupProducts(List.of(productId), true, true, tenantId).get(0);
+        assertTrue(admin.getFound());
+        assertEquals(2, admin.getVariants().size());
+    }
+
+    private void assertComesBackWithVariants(CatalogDelta delta) {
+        assertFalse(delta.full());
+        assertEquals(List.of(productId), delta.products().stream().map(ProductView::id).toList());
+        assertEquals(Set.of(variantId, otherVariantId),
+                delta.variants().stream().map(VariantView::id).collect(Collectors.toSet()));
+        assertTrue(delta.removedProductIds().isEmpty());
+    }
+
+    private static Product product(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(BigDecimal.TEN);
+        product.setUnit("kg");
+        return product;
+    }
+
+    private long insertVariant(int quantity) {
+        return jdbcTemplate.queryForObject("insert into product_variants "
+                + "(product_id, tenant_id, quantity_value, quantity_unit, price, active) "
+                + "values (?, ?, ?, 'kg', 10, true) returning id", Long.class, productId, tenantId, quantity);
+    }
+
+    private long catalogVersion() {
+        return jdbcTemplate.queryForObject("select catalog_version from tenants where id = ?", Long.class,
+                tenantId);
+    }
+
+    private long count(String sql, long id) {
+        return jdbcTemplate.queryForObject(sql, Long.class, id);
+    }
+}
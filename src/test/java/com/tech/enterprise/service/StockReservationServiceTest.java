@@ -0,0 +1,321 @@
+package com.tech.enterprise.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.tech.enterprise.dto.CartLine;
+import com.tech.enterprise.dto.CartQuote;
+import com.tech.enterprise.model.ProductVariant;
+import com.tech.enterprise.model.StockReservation;
+import com.tech.enterprise.repo.ProductVariantRepository;
+
+/**
+ * Stock reservations against PostgreSQL under concurrent buyers: the
+ * conditional UPDATEs must never oversell, confirm, release and expiry must
+ * each win at most once, and reservations on different variants never wait
+ * for each other. Skipped when Docker is not available.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class StockReservationServiceTest {
+
+    private static final int STOCK = 10;
+    private static final int VARIANTS = 20;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16");
+
+    @Autowired
+    private StockReservationService reservationService;
+    @Autowired
+    private CartQuoteService cartQuoteService;
+    @Autowired
+    private ProductVariantService variantService;
+    @Autowired
+    private ProductVariantRepository variantRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long tenantId;
+    private long productId;
+    private long variantId;
+    private long versionBefore;
+
+    @BeforeEach
+    void seed() {
+        String slug = "reservations-" + UUID.randomUUID();
+        tenantId = jdbcTemplate.queryForObject(
+                "insert into tenants (name, slug, active) values (?, ?, true) returning id", Long.class, slug, slug);
+        productId = jdbcTemplate.queryForObject("insert into products (name, tenant_id, price, unit, active) "
+                + "values ('Rice', ?, 10, 'kg', true) returning id", Long.class, tenantId);
+        variantId = jdbcTemplate.queryForObject("insert into product_variants "
+                + "(product_id, tenant_id, quantity_value, quantity_unit, price, active, stock) "
+                + "values (?, ?, 1, 'kg', 10, true, ?) returning id", Long.class, productId, tenantId, STOCK);
+        versionBefore = catalogVersion();
+    }
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        List<Boolean> outcomes = race(4 * STOCK, () -> {
+            try {
+                reservationService.reserve(variantId, 1, tenantId);
+                return true;
+            } catch (ResponseStatusException e) {
+                assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+                return false;
+            }
+        });
+
+        assertEquals(STOCK, outcomes.stream().filter(Boolean::booleanValue).count());
+        assertEquals(0, stock());
+        assertEquals(STOCK, jdbcTemplate.queryForObject(
+                "select count(*) from stock_reservations where variant_id = ? and status = 'HELD'", Long.class,
+                variantId));
+    }
+
+    @Test
+    void confirmAndReleaseRaceHasOneWinner() throws Exception {
+        for (int attempt = 0; attempt < STOCK / 2; attempt++) {
+            UUID reservationId = reservationService.reserve(variantId, 2, tenantId).getId();
+            AtomicInteger calls = new AtomicInteger();
+            List<Boolean> outcomes = race(2, () -> {
+                try {
+                    if (calls.getAndIncrement() == 0) {
+                        reservationService.confirm(reservationId, tenantId);
+                    } else {
+                        reservationService.release(reservationId, tenantId);
+                    }
+                    return true;
+                } catch (ResponseStatusException e) {
+                    assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+                    return false;
+                }
+            });
+            assertEquals(1, outcomes.stream().filter(Boolean::booleanValue).count());
+        }
+        // Released reservations gave their 2 units back; confirmed ones kept them
+        long confirmed = jdbcTemplate.queryForObject(
+                "select count(*) from stock_reservations where variant_id = ? and status = 'CONFIRMED'", Long.class,
+                variantId);
+        assertEquals(STOCK - 2 * confirmed, stock());
+    }
+
+    @Test
+    void confirmAfterExpiryIsGoneAndReturnsStock() {
+        StockReservation reservation = reservationService.reserve(variantId, 3, tenantId);
+        assertEquals(STOCK - 3, stock());
+        // Expired, but not swept yet
+        jdbcTemplate.update("update stock_reservations set expires_at = now() - interval '1 second' where id = ?",
+                reservation.getId());
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> reservationService.confirm(reservation.getId(), tenantId));
+        assertEquals(HttpStatus.GONE, e.getStatusCode());
+        assertEquals(STOCK, stock());
+        assertEquals("EXPIRED", jdbcTemplate.queryForObject(
+                "select status from stock_reservations where id = ?", String.class, reservation.getId()));
+
+        // Nothing is returned twice
+        reservationService.expireReservations();
+        assertEquals(STOCK, stock());
+    }
+
+    @Test
+    void concurrentReservationsAcrossManyVariantsNeverOversell() throws Exception {
+        List<Long> variantIds = new ArrayList<>();
+        for (int i = 0; i < VARIANTS; i++) {
+            variantIds.add(insertVariant());
+        }
+
+        AtomicInteger next = new AtomicInteger();
+        List<Boolean> outcomes = race(2 * STOCK * VARIANTS / 4, () -> {
+            long target = variantIds.get(next.getAndIncrement() % VARIANTS);
+            try {
+                reservationService.reserve(target, 2, tenantId);
+                return true;
+            } catch (ResponseStatusException e) {
+                assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+                return false;
+            }
+        });
+
+        // Each variant got 2 * STOCK / 4 attempts of 2 units: every one fits
+        assertEquals(outcomes.size(), outcomes.stream().filter(Boolean::booleanValue).count());
+        for (long id : variantIds) {
+            assertEquals(0, jdbcTemplate.queryForObject(
+                    "select stock from product_variants where id = ?", Integer.class, id));
+        }
+        // Reservations are not catalog writes
+        assertEquals(versionBefore, catalogVersion());
+    }
+
+    @Test
+    void openReservationDoesNotBlockOtherVariantsOrAdminWrites() throws Exception {
+        long otherVariantId = insertVariant();
+        CountDownLatch reserved = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        // A reservation whose transaction stays open, holding its row lock
+        CompletableFuture<Void> open = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(
+                status -> {
+                    reservationService.reserve(variantId, 1, tenantId);
+                    reserved.countDown();
+                    await(finish);
+                }));
+        try {
+            assertTrue(reserved.await(10, TimeUnit.SECONDS));
+
+            CompletableFuture.runAsync(() -> reservationService.reserve(otherVariantId, 1, tenantId))
+                    .get(5, TimeUnit.SECONDS);
+            CompletableFuture.runAsync(() -> variantService.adjustStock(otherVariantId, 1, tenantId))
+                    .get(5, TimeUnit.SECONDS);
+        } finally {
+            finish.countDown();
+            open.get(10, TimeUnit.SECONDS);
+        }
+        assertEquals(STOCK - 1, stock());
+        assertEquals(STOCK, jdbcTemplate.queryForObject(
+                "select stock from product_variants where id = ?", Integer.class, otherVariantId));
+    }
+
+    @Test
+    void adminPutRacingAReservationKeepsItsStock() {
+        transactionTemplate.executeWithoutResult(status -> {
+            // The admin's PUT has loaded the variant...
+            ProductVariant loaded = variantRepository.findByIdAndTenantId(variantId, tenantId).orElseThrow();
+            assertEquals(STOCK, loaded.getStock());
+
+            // ...when a buyer's reservation commits
+            CompletableFuture.runAsync(() -> reservationService.reserve(variantId, 3, tenantId)).join();
+
+            ProductVariant details = new ProductVariant();
+            details.setQuantityValue(loaded.getQuantityValue());
+            details.setQuantityUnit(loaded.getQuantityUnit());
+            details.setPrice(BigDecimal.valueOf(12));
+            details.setActive(true);
+            details.setStock(STOCK);
+            variantService.updateVariant(variantId, details, null, tenantId);
+        });
+
+        assertEquals(STOCK - 3, stock());
+        assertEquals(0, new BigDecimal("12").compareTo(jdbcTemplate.queryForObject(
+                "select price from product_variants where id = ?", BigDecimal.class, variantId)));
+    }
+
+    @Test
+    void quantityIsCapped() {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> reservationService.reserve(variantId, 21, tenantId));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        assertEquals(STOCK, stock());
+    }
+
+    @Test
+    void signedQuoteReservesEveryLine() {
+        CartQuote quote = cartQuoteService.quote(List.of(new CartLine(variantId, 4)), tenantId);
+
+        List<StockReservation> reservations = reservationService.reserveQuote(quote, tenantId);
+
+        assertEquals(1, reservations.size());
+        assertEquals(4, reservations.get(0).getQuantity());
+        assertEquals(STOCK - 4, stock());
+    }
+
+    @Test
+    void alteredQuoteIsRejected() {
+        CartQuote quote = cartQuoteService.quote(List.of(new CartLine(variantId, 4)), tenantId);
+        quote.getLines().get(0).setUnitPrice(BigDecimal.ONE);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> reservationService.reserveQuote(quote, tenantId));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        assertEquals(STOCK, stock());
+    }
+
+    @Test
+    void variantsOfInactiveProductsAreNotQuoted() {
+        jdbcTemplate.update("update products set active = false where id = ?", productId);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> cartQuoteService.quote(List.of(new CartLine(variantId, 1)), tenantId));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+    }
+
+    private int stock() {
+        return jdbcTemplate.queryForObject("select stock from product_variants where id = ?", Integer.class,
+                variantId);
+    }
+
+    private long insertVariant() {
+        return jdbcTemplate.queryForObject("insert into product_variants "
+                + "(product_id, tenant_id, quantity_value, quantity_unit, price, active, stock) "
+                + "values (?, ?, 1, 'kg', 10, true, ?) returning id", Long.class, productId, tenantId, STOCK);
+    }
+
+    private long catalogVersion() {
+        return jdbcTemplate.queryForObject("select coalesce(catalog_version, 0) from tenants where id = ?", Long.class,
+                tenantId);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Run the task on that many threads released at the same moment.
+     */
+    private static <T> List<T> race(int threads, Callable<T> task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.tech.enterprise.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import com.tech.enterprise.diagnostics.QueryCounter;
+
+/**
+ * Asserts the exact number of JDBC statements an endpoint runs, so N+1
+ * regressions fail the build instead of showing up in production.
+ *
+ * MockMvc executes the request on the test thread, which is what the
+ * per-thread QueryCounter needs:
+ *
+ * <pre>
+ * assertQueryCount(1, mockMvc, get("/api/acme/products"))
+ *         .andExpect(status().isOk());
+ * </pre>
+ */
+public final class QueryCountAssertions {
+
+    private QueryCountAssertions() {
+    }
+
+    /**
+     * Perform the request and assert it ran exactly {@code expected} statements.
+     *
+     * @return The MockMvc result for further expectations
+     */
+    public static ResultActions assertQueryCount(int expected, MockMvc mockMvc, RequestBuilder request)
+            throws Exception {
+        QueryCounter.reset();
+        ResultActions result = mockMvc.perform(request);
+        int actual = QueryCounter.count();
+        assertEquals(expected, actual, () -> "Unexpected number of SQL statements for "
+                + result.andReturn().getRequest().getMethod() + " "
+                + result.andReturn().getRequest().getRequestURI());
+        return result;
+    }
+
+    /**
+     * Run an arbitrary block (service call, several requests) and assert it ran
+     * exactly {@code expected} statements.
+     */
+    public static void assertQueryCount(int expected, ThrowingRunnable block) throws Exception {
+        QueryCounter.reset();
+        block.run();
+        assertEquals(expected, QueryCounter.count(), "Unexpected number of SQL statements");
+    }
+
+    /**
+     * @return Statements run by the block
+     */
+    public static int countQueries(ThrowingRunnable block) throws Exception {
+        QueryCounter.reset();
+        block.run();
+        return QueryCounter.count();
+    }
+
+    @FunctionalInterface
+    public interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,56 @@
+package com.tech.enterprise.tenant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.tech.enterprise.model.Tenant;
+import com.tech.enterprise.repo.TenantRepository;
+
+/**
+ * With the slug cache enabled, a tenant deactivated through JPA must stop
+ * resolving as soon as the change commits. Skipped when Docker is not
+ * available.
+ */
+@SpringBootTest(properties = "app.tenant.cache-ttl=PT10M")
+@Testcontainers(disabledWithoutDocker = true)
+class TenantResolverTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16");
+
+    @Autowired
+    private TenantResolver tenantResolver;
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Test
+    void deactivatedTenantIsEvictedOnCommit() {
+        String slug = "resolver-" + UUID.randomUUID();
+        Tenant tenant = new Tenant();
+        tenant.setName(slug);
+        tenant.setSlug(slug);
+        tenant = tenantRepository.save(tenant);
+        // Now cached
+        assertEquals(tenant.getId(), tenantResolver.resolveTenant(slug).getId());
+
+        tenant.setActive(false);
+        tenantRepository.save(tenant);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> tenantResolver.resolveTenant(slug));
+        assertEquals(HttpStatus.FORBIDDEN, e.getStatusCode());
+    }
+}